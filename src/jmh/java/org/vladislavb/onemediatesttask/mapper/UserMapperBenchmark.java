@@ -0,0 +1,49 @@
+package org.vladislavb.onemediatesttask.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.vladislavb.onemediatesttask.dto.UserDto;
+import org.vladislavb.onemediatesttask.entity.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the MapStruct generated {@link UserMapper} in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private User user;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setUserId(42L);
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setEmail("ada@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3Z1Qe6fS0Z8l5xX9Jc3qG7e");
+        userDto = userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserDto toPublicDto() {
+        return userMapper.toPublicDto(user);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(userDto);
+    }
+}
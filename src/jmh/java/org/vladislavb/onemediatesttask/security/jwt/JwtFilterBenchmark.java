@@ -0,0 +1,85 @@
+package org.vladislavb.onemediatesttask.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.vladislavb.onemediatesttask.entity.User;
+import org.vladislavb.onemediatesttask.security.CustomUserDetails;
+import org.vladislavb.onemediatesttask.security.CustomUserServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of {@link JwtFilter} with mock requests. The user lookup is stubbed,
+ * so the numbers cover header parsing, token verification and populating the security context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    /**
+     * "valid" sends an access token of the benchmarked mode, "anonymous" sends no Authorization header.
+     */
+    @Param({"valid", "anonymous"})
+    public String authorization;
+
+    @Param({"JWT", "OPAQUE"})
+    public AccessTokenMode mode;
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = JwtServiceBenchmark.newJwtService(mode);
+        jwtFilter = new JwtFilter(jwtService, new StubUserService(), new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/api/posts");
+        if ("valid".equals(authorization)) {
+            String token = jwtService.generateAccessToken(JwtServiceBenchmark.EMAIL);
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        jwtFilter.doFilter(request, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * Returns the same user for every email instead of querying the database.
+     */
+    private static final class StubUserService extends CustomUserServiceImpl {
+
+        private final CustomUserDetails userDetails;
+
+        StubUserService() {
+            super(null);
+            User user = new User();
+            user.setUserId(1L);
+            user.setEmail(JwtServiceBenchmark.EMAIL);
+            user.setPassword("{noop}password");
+            this.userDetails = new CustomUserDetails(user);
+        }
+
+        @Override
+        public CustomUserDetails loadUserByUsername(String username) {
+            return userDetails;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.vladislavb.onemediatesttask.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vladislavb.onemediatesttask.security.revocation.TokenRevocationService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures token signing, validation and subject extraction in {@link JwtService}, for signed JWTs
+ * and for opaque tokens. Every authenticated request pays for one validation and one subject extraction,
+ * every login and refresh for one access token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "8074658237c236e39e96e909ac1abb25a3e1773b100096ad6877c439cd452c17";
+    static final String EMAIL = "benchmark@example.com";
+
+    @Param({"JWT", "OPAQUE"})
+    public AccessTokenMode mode;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = newJwtService(mode);
+        token = jwtService.generateAccessToken(EMAIL);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(EMAIL);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtService.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtService.getEmailFromToken(token);
+    }
+
+    /**
+     * Creates a JwtService outside of the Spring context, with the same secret the application uses
+     * and a revocation service that knows no revoked tokens, as is the case for almost every request.
+     *
+     * @param mode the kind of access tokens to issue.
+     * @return the configured service.
+     */
+    static JwtService newJwtService(AccessTokenMode mode) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRevocationService revocationService = new TokenRevocationService(null, 1000, 0.001, 100,
+                Duration.ZERO, meterRegistry) {
+            @Override
+            public void revoke(String token, Instant expiresAt) {
+            }
+
+            @Override
+            public boolean isRevoked(String token) {
+                return false;
+            }
+        };
+        JwtService jwtService = new JwtService(revocationService, mode, 100_000, meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        return jwtService;
+    }
+}
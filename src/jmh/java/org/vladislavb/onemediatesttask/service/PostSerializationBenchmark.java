@@ -0,0 +1,112 @@
+package org.vladislavb.onemediatesttask.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.vladislavb.onemediatesttask.entity.Post;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding of a list of posts the way GET /api/posts serves it: plain Jackson JSON,
+ * the pre-encoded {@link PostJsonCache}, and the CBOR and Smile binary formats.
+ * The output stream is reused so only the serialization itself is measured.
+ * The decode benchmarks read the same list back from each format, as a client or a request body would,
+ * and the encode benchmarks return the payload size of each format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int posts;
+
+    private List<Post> postList;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private PostJsonCache postJsonCache;
+    private ByteArrayOutputStream out;
+    private JavaType postListType;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        postList = new ArrayList<>(posts);
+        for (long id = 1; id <= posts; id++) {
+            Post post = new Post();
+            post.setId(id);
+            post.setUserId(id % 10 + 1);
+            post.setTitle("sunt aut facere repellat provident occaecati excepturi optio reprehenderit " + id);
+            post.setBody("quia et suscipit\nsuscipit recusandae consequuntur expedita et cum\n"
+                    + "reprehenderit molestiae ut ut quas totam\nnostrum rerum est autem sunt rem eveniet architecto");
+            postList.add(post);
+        }
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        postJsonCache = new PostJsonCache(jsonMapper);
+        postJsonCache.load(() -> postList);
+        out = new ByteArrayOutputStream(posts * 256);
+        postListType = jsonMapper.getTypeFactory().constructCollectionType(List.class, Post.class);
+        jsonBytes = jsonMapper.writeValueAsBytes(postList);
+        cborBytes = cborMapper.writeValueAsBytes(postList);
+        smileBytes = smileMapper.writeValueAsBytes(postList);
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        out.reset();
+        jsonMapper.writeValue(out, postList);
+        return out.size();
+    }
+
+    @Benchmark
+    public int preEncodedCache() throws IOException {
+        out.reset();
+        postJsonCache.writeTo(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int cbor() throws IOException {
+        out.reset();
+        cborMapper.writeValue(out, postList);
+        return out.size();
+    }
+
+    @Benchmark
+    public int smile() throws IOException {
+        out.reset();
+        smileMapper.writeValue(out, postList);
+        return out.size();
+    }
+
+    @Benchmark
+    public List<Post> jacksonDecode() throws IOException {
+        return jsonMapper.readValue(jsonBytes, postListType);
+    }
+
+    @Benchmark
+    public List<Post> cborDecode() throws IOException {
+        return cborMapper.readValue(cborBytes, postListType);
+    }
+
+    @Benchmark
+    public List<Post> smileDecode() throws IOException {
+        return smileMapper.readValue(smileBytes, postListType);
+    }
+}
@@ -0,0 +1,85 @@
+package org.vladislavb.onemediatesttask.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vladislavb.onemediatesttask.OneMediaTestTaskApplication;
+import org.vladislavb.onemediatesttask.dto.UserDto;
+import org.vladislavb.onemediatesttask.entity.User;
+import org.vladislavb.onemediatesttask.mapper.UserMapper;
+import org.vladislavb.onemediatesttask.repository.UserRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways GET /user/{id} has resolved a user: loading the managed {@link User} entity in a
+ * read-write transaction and mapping it with {@link UserMapper}, and the JPQL projection straight into a
+ * {@link UserDto} in a read-only transaction. The application runs against an in-memory H2 database,
+ * with and without the second-level cache. Run with {@code -prof gc} to compare the allocation per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        String url = "jdbc:h2:mem:user-lookup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;"
+                + "DB_CLOSE_DELAY=-1";
+        context = new SpringApplicationBuilder(OneMediaTestTaskApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "--logging.level.root=WARN",
+                        "--logging.file.name=target/jmh/application.log");
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        User user = new User();
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setEmail("ada@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3Z1Qe6fS0Z8l5xX9Jc3qG7e");
+        userId = readWriteTransaction.execute(status -> userRepository.save(user).getUserId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto entityAndMapper() {
+        return readWriteTransaction.execute(status ->
+                userMapper.toDto(userRepository.findByUserId(userId).orElseThrow()));
+    }
+
+    @Benchmark
+    public UserDto projection() {
+        return readOnlyTransaction.execute(status -> userRepository.findDtoByUserId(userId).orElseThrow());
+    }
+}
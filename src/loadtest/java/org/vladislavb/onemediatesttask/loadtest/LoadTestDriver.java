@@ -0,0 +1,214 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives the running application with a closed-loop workload: every virtual user registers and signs in once,
+ * then issues operations picked at random according to the configured mix until the run ends.
+ * Latencies of requests issued after the warmup are recorded in one histogram per operation, in microseconds.
+ */
+final class LoadTestDriver {
+
+    private static final String PASSWORD = "LoadTest1!";
+    private static final Duration ACCESS_TOKEN_REUSE = Duration.ofSeconds(45);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    /**
+     * Creates a driver for the application listening on the given base URI.
+     *
+     * @param baseUri  the base URI of the application.
+     * @param settings the settings of the run.
+     */
+    LoadTestDriver(URI baseUri, LoadTestSettings settings) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : settings.mix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                weighted.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        this.operations = weighted.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+        for (Operation operation : operations) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the workload and blocks until the warmup and the measured duration have elapsed.
+     *
+     * @return the recorded results.
+     * @throws Exception if a virtual user cannot be set up.
+     */
+    LoadTestReport run() throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        List<Future<?>> users = new ArrayList<>(settings.concurrency());
+        try (ExecutorService executor = Executors.newFixedThreadPool(settings.concurrency())) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                users.add(executor.submit(() -> {
+                    new VirtualUser().run(measureFrom, end);
+                    return null;
+                }));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        }
+        return new LoadTestReport(settings, histograms, errors);
+    }
+
+    /**
+     * A single client session holding its own credentials and tokens.
+     */
+    private final class VirtualUser {
+
+        private final String email = "vu-" + UUID.randomUUID() + "@loadtest.local";
+        private String accessToken;
+        private String refreshToken;
+        private long accessTokenIssuedAt;
+
+        void run(long measureFrom, long end) throws IOException, InterruptedException {
+            expectSuccess(register(email));
+            expectSuccess(signIn());
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                if (now - accessTokenIssuedAt > ACCESS_TOKEN_REUSE.toNanos()) {
+                    expectSuccess(signIn());
+                }
+                Operation operation = nextOperation();
+                long started = System.nanoTime();
+                int status;
+                try {
+                    status = execute(operation);
+                } catch (IOException e) {
+                    status = -1;
+                }
+                long finished = System.nanoTime();
+                if (started >= measureFrom && finished <= end) {
+                    histograms.get(operation).recordValue(
+                            Math.min(TimeUnit.NANOSECONDS.toMicros(finished - started), HIGHEST_TRACKABLE_MICROS));
+                    if (status < 200 || status >= 300) {
+                        errors.get(operation).increment();
+                    }
+                }
+            }
+        }
+
+        private int execute(Operation operation) throws IOException, InterruptedException {
+            return switch (operation) {
+                case REGISTER -> register("vu-" + UUID.randomUUID() + "@loadtest.local");
+                case SIGN_IN -> signIn();
+                case REFRESH -> refresh();
+                case READ -> send(authorized("/api/posts").GET());
+                case SYNC -> send(authorized("/api/posts/fetch").GET());
+            };
+        }
+
+        private int register(String newEmail) throws IOException, InterruptedException {
+            return send(json("/user/registration", Map.of(
+                    "firstName", "Load",
+                    "lastName", "Test",
+                    "email", newEmail,
+                    "password", PASSWORD)));
+        }
+
+        private int signIn() throws IOException, InterruptedException {
+            HttpResponse<byte[]> response = httpClient.send(json("/auth/sing-in",
+                    Map.of("email", email, "password", PASSWORD)).build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                storeTokens(response.body());
+            }
+            return response.statusCode();
+        }
+
+        private int refresh() throws IOException, InterruptedException {
+            HttpResponse<byte[]> response = httpClient.send(json("/auth/refresh",
+                    Map.of("refreshToken", refreshToken)).build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                storeTokens(response.body());
+            }
+            return response.statusCode();
+        }
+
+        private void storeTokens(byte[] body) throws IOException {
+            JsonNode tokens = objectMapper.readTree(body);
+            accessToken = tokens.path("token").asText();
+            refreshToken = tokens.path("refreshToken").asText();
+            accessTokenIssuedAt = System.nanoTime();
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Accept", "application/json");
+        }
+
+        private HttpRequest.Builder json(String path, Map<String, String> body) throws IOException {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        }
+
+        private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private Operation nextOperation() {
+            int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (pick < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        private void expectSuccess(int status) {
+            if (status < 200 || status >= 300) {
+                throw new IllegalStateException("Virtual user " + email + " could not be set up, status " + status);
+            }
+        }
+    }
+}
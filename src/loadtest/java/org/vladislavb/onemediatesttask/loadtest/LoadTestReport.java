@@ -0,0 +1,104 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The results of a load-test run: one latency histogram and error count per operation.
+ * Reports are written as a human-readable summary, a CSV with one row per operation for comparing runs,
+ * and one HdrHistogram percentile distribution (.hgrm) per operation, all in milliseconds.
+ */
+final class LoadTestReport {
+
+    private static final DateTimeFormatter DIRECTORY_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String CSV_HEADER = "operation,count,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final LoadTestSettings settings;
+    private final Map<Operation, Histogram> histograms;
+    private final Map<Operation, LongAdder> errors;
+
+    LoadTestReport(LoadTestSettings settings, Map<Operation, Histogram> histograms, Map<Operation, LongAdder> errors) {
+        this.settings = settings;
+        this.histograms = histograms;
+        this.errors = errors;
+    }
+
+    /**
+     * Writes the summary, CSV and percentile distributions into a new directory named after the run label.
+     *
+     * @return the directory the report was written to.
+     * @throws IOException if a file cannot be written.
+     */
+    Path write() throws IOException {
+        Path directory = settings.reportDir()
+                .resolve(settings.label() + "-" + LocalDateTime.now().format(DIRECTORY_TIMESTAMP));
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("summary.txt"), summary());
+        Files.writeString(directory.resolve("summary.csv"), csv());
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey().getName() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * Formats the run settings and a table with the count, errors, throughput and latency percentiles of every operation.
+     *
+     * @return the summary text.
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder()
+                .append("label:       ").append(settings.label()).append('\n')
+                .append("java:        ").append(Runtime.version()).append('\n')
+                .append("cpus:        ").append(Runtime.getRuntime().availableProcessors()).append('\n')
+                .append("concurrency: ").append(settings.concurrency()).append('\n')
+                .append("warmup:      ").append(settings.warmup()).append('\n')
+                .append("duration:    ").append(settings.duration()).append('\n')
+                .append("posts:       ").append(settings.posts()).append('\n')
+                .append("profiles:    ").append(settings.profiles()).append('\n')
+                .append("mix:         ").append(settings.mix().entrySet().stream()
+                        .map(entry -> entry.getKey().getName() + "=" + entry.getValue())
+                        .collect(Collectors.joining(","))).append("\n\n")
+                .append(String.format(Locale.ROOT, "%-10s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                        "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        histograms.forEach((operation, histogram) -> summary.append(String.format(Locale.ROOT,
+                "%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.getName(), histogram.getTotalCount(), errors.get(operation).sum(), throughput(histogram),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0)));
+        return summary.toString();
+    }
+
+    private String csv() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        histograms.forEach((operation, histogram) -> csv.append(String.format(Locale.ROOT,
+                "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                operation.getName(), histogram.getTotalCount(), errors.get(operation).sum(), throughput(histogram),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0)));
+        return csv.toString();
+    }
+
+    private double throughput(Histogram histogram) {
+        return histogram.getTotalCount() / (settings.duration().toMillis() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.vladislavb.onemediatesttask.OneMediaTestTaskApplication;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Entry point of the load test. Starts the posts upstream stub, boots the application on a random port against
+ * an in-memory H2 database in PostgreSQL compatibility mode, migrated by Flyway, runs the configured workload and writes the report.
+ * JDBC and, with the "reactive" profile, R2DBC connect to the same in-memory database.
+ *
+ * <p>Run with {@code ./mvnw -Ploadtest test-compile exec:java}. The workload is configured through
+ * {@code loadtest.*} system properties, see {@link LoadTestSettings}.</p>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (UpstreamStub upstream = UpstreamStub.start(settings.posts());
+             ConfigurableApplicationContext application = startApplication(upstream.postsUrl(), settings.profiles(),
+                     settings.reportDir())) {
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            LoadTestReport report = new LoadTestDriver(URI.create("http://127.0.0.1:" + port), settings).run();
+            Path directory = report.write();
+            System.out.println(report.summary());
+            System.out.println("Report written to " + directory.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Boots the application with an embedded database and the stub as the posts upstream.
+     * The settings are passed as command-line arguments so that they take precedence over application.properties.
+     * Logging uses the regular application configuration, so its cost is part of the measurements. The rate limits
+     * stay enforced but are raised far above the workload, so that their cost is measured without rejections.
+     *
+     * @param upstreamUrl the URL of the posts upstream stub.
+     * @param profiles    the comma-separated Spring profiles to activate.
+     * @param reportDir   the directory the application log is written to.
+     * @return the running application context.
+     */
+    private static ConfigurableApplicationContext startApplication(String upstreamUrl, String profiles, Path reportDir) {
+        return new SpringApplicationBuilder(OneMediaTestTaskApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///loadtest?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.profiles.active=" + profiles,
+                        "--logging.file.name=" + reportDir.resolve("application.log"),
+                        "--app.posts.upstream-url=" + upstreamUrl,
+                        "--app.security.rate-limit.posts-fetch.limit=1000000",
+                        "--app.security.rate-limit.posts-read.limit=1000000",
+                        "--app.security.rate-limit.default.limit=1000000");
+    }
+}
@@ -0,0 +1,75 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load-test run, read from {@code loadtest.*} system properties.
+ *
+ * @param label       the name of the run, used as the prefix of the report directory.
+ * @param concurrency the number of virtual users issuing requests in a closed loop.
+ * @param warmup      the time during which requests are issued but not recorded.
+ * @param duration    the measured time after the warmup.
+ * @param posts       the number of posts the upstream stub serves.
+ * @param mix         the relative weight of every operation.
+ * @param reportDir   the directory the reports are written to.
+ * @param profiles    the comma-separated Spring profiles the application is started with.
+ */
+public record LoadTestSettings(String label,
+                               int concurrency,
+                               Duration warmup,
+                               Duration duration,
+                               int posts,
+                               Map<Operation, Integer> mix,
+                               Path reportDir,
+                               String profiles) {
+
+    static final String DEFAULT_MIX = "register=1,sign-in=2,refresh=2,read=20,sync=1";
+
+    /**
+     * Reads the settings from system properties, falling back to the defaults for missing ones.
+     *
+     * @return the settings of this run.
+     * @throws IllegalArgumentException if a property has an invalid value.
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.label", "run"),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.getInteger("loadtest.posts", 100),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.report-dir", "target/loadtest")),
+                System.getProperty("loadtest.profiles", ""));
+    }
+
+    /**
+     * Parses an operation mix such as {@code read=20,sync=1}. Operations that are not listed are not issued.
+     *
+     * @param mix the comma-separated list of operation weights.
+     * @return the weight of every listed operation.
+     * @throws IllegalArgumentException if an operation is unknown, a weight is negative or all weights are zero.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            weights.put(Operation.fromName(parts[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight: " + mix);
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+}
@@ -0,0 +1,64 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The operations a virtual user can issue, each recorded in its own latency histogram.
+ */
+public enum Operation {
+
+    /**
+     * POST /user/registration with a new, unique email.
+     */
+    REGISTER("register"),
+
+    /**
+     * POST /auth/sing-in with the credentials of the virtual user.
+     */
+    SIGN_IN("sign-in"),
+
+    /**
+     * POST /auth/refresh with the current refresh token of the virtual user.
+     */
+    REFRESH("refresh"),
+
+    /**
+     * GET /api/posts with the current access token.
+     */
+    READ("read"),
+
+    /**
+     * GET /api/posts/fetch, which pulls all posts from the upstream stub and stores them.
+     */
+    SYNC("sync");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name used for the operation in the mix and in reports.
+     *
+     * @return the operation name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Looks up an operation by its mix name.
+     *
+     * @param name the operation name.
+     * @return the operation.
+     * @throws IllegalArgumentException if no operation has the given name.
+     */
+    public static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + name
+                        + ", allowed: " + Arrays.stream(values()).map(Operation::getName).toList()));
+    }
+}
@@ -0,0 +1,167 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures time-to-first-request of the packaged application: the time from starting the JVM until the first
+ * successful response from a probe URL. Each mode is started several times in a fresh JVM and the results are
+ * written to {@code target/startup/summary.csv}.
+ *
+ * <p>Modes:</p>
+ * <ul>
+ *     <li>{@code jar} runs the executable jar as built, with the default configuration.</li>
+ *     <li>{@code faststart} runs the extracted jar of the "faststart" Maven profile with the AOT-generated bean
+ *     definitions, the class data sharing archive and the "faststart" Spring profile.</li>
+ * </ul>
+ *
+ * <p>Settings are read from {@code startup.*} system properties: {@code startup.modes} (default {@code jar,faststart}),
+ * {@code startup.runs} (default 5), {@code startup.url} (default {@code /actuator/health}), {@code startup.port}
+ * (default 18080), {@code startup.timeout} (default {@code PT2M}) and {@code startup.args}, space-separated
+ * application arguments passed to every run, such as the datasource URL.</p>
+ */
+public final class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path FASTSTART = TARGET.resolve("faststart");
+    private static final Path REPORT_DIR = TARGET.resolve("startup");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> modes = List.of(System.getProperty("startup.modes", "jar,faststart").split(","));
+        int runs = Integer.getInteger("startup.runs", 5);
+        int port = Integer.getInteger("startup.port", 18080);
+        URI probe = URI.create("http://127.0.0.1:" + port + System.getProperty("startup.url", "/actuator/health"));
+        Duration timeout = Duration.parse(System.getProperty("startup.timeout", "PT2M"));
+        List<String> applicationArgs = new ArrayList<>();
+        applicationArgs.add("--server.port=" + port);
+        String extraArgs = System.getProperty("startup.args", "").trim();
+        if (!extraArgs.isEmpty()) {
+            applicationArgs.addAll(Arrays.asList(extraArgs.split("\\s+")));
+        }
+
+        Files.createDirectories(REPORT_DIR);
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRequest(command(mode.trim(), applicationArgs), workingDirectory(mode.trim()),
+                        REPORT_DIR.resolve(mode.trim() + "-" + run + ".log"), httpClient, probe, timeout);
+                System.out.printf(Locale.ROOT, "%s run %d: %d ms%n", mode.trim(), run + 1, millis[run]);
+            }
+            results.put(mode.trim(), millis);
+        }
+        writeSummary(results);
+    }
+
+    /**
+     * Starts the application and polls the probe URL until it answers with a 2xx status.
+     *
+     * @return the elapsed milliseconds between starting the process and the first successful response.
+     */
+    private static long timeToFirstRequest(List<String> command, Path workingDirectory, Path log,
+                                           HttpClient httpClient, URI probe, Duration timeout)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            HttpRequest request = HttpRequest.newBuilder(probe).timeout(Duration.ofSeconds(1)).GET().build();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status >= 200 && status < 300) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful response from " + probe + " within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static List<String> command(String mode, List<String> applicationArgs) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("--enable-preview");
+        switch (mode) {
+            case "jar" -> {
+                command.add("-jar");
+                command.add(applicationJar(TARGET).toAbsolutePath().toString());
+            }
+            case "faststart" -> {
+                if (!Files.exists(FASTSTART.resolve("application.jsa"))) {
+                    throw new IllegalStateException("No CDS archive in " + FASTSTART + ", build with -Pfaststart");
+                }
+                command.add("-XX:SharedArchiveFile=application.jsa");
+                command.add("-Dspring.aot.enabled=true");
+                command.add("-jar");
+                command.add(applicationJar(FASTSTART).getFileName().toString());
+                command.add("--spring.profiles.active=faststart");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode + ", allowed: [jar, faststart]");
+        }
+        command.addAll(applicationArgs);
+        return command;
+    }
+
+    private static Path workingDirectory(String mode) {
+        return "faststart".equals(mode) ? FASTSTART : TARGET;
+    }
+
+    private static Path applicationJar(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + directory));
+        }
+    }
+
+    private static void writeSummary(Map<String, long[]> results) throws IOException {
+        StringBuilder csv = new StringBuilder("mode,runs,min_ms,median_ms,max_ms\n");
+        System.out.printf(Locale.ROOT, "%n%-10s %5s %8s %10s %8s%n", "mode", "runs", "min ms", "median ms", "max ms");
+        results.forEach((mode, millis) -> {
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            long min = sorted[0];
+            long median = sorted[sorted.length / 2];
+            long max = sorted[sorted.length - 1];
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d%n", mode, sorted.length, min, median, max));
+            System.out.printf(Locale.ROOT, "%-10s %5d %8d %10d %8d%n", mode, sorted.length, min, median, max);
+        });
+        Files.writeString(REPORT_DIR.resolve("summary.csv"), csv);
+        System.out.println("Report written to " + REPORT_DIR.resolve("summary.csv").toAbsolutePath());
+    }
+}
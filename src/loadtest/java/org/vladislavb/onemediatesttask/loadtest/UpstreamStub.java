@@ -0,0 +1,85 @@
+package org.vladislavb.onemediatesttask.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A local stand-in for the JSONPlaceholder posts API, so that post sync is measured without network noise.
+ * It serves the same fixed set of posts on every request.
+ */
+final class UpstreamStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private UpstreamStub(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the stub on a free local port.
+     *
+     * @param posts the number of posts to serve.
+     * @return the running stub.
+     * @throws IOException if the server cannot be bound.
+     */
+    static UpstreamStub start(int posts) throws IOException {
+        byte[] body = postsJson(posts);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/posts", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        return new UpstreamStub(server, executor);
+    }
+
+    /**
+     * Returns the URL the application should fetch posts from.
+     *
+     * @return the posts URL of the stub.
+     */
+    String postsUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/posts";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds a JSON array of posts shaped like the JSONPlaceholder response.
+     *
+     * @param posts the number of posts.
+     * @return the UTF-8 encoded JSON.
+     */
+    private static byte[] postsJson(int posts) {
+        StringBuilder json = new StringBuilder(posts * 300).append('[');
+        for (int id = 1; id <= posts; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            json.append("{\"userId\":").append((id - 1) / 10 + 1)
+                    .append(",\"id\":").append(id)
+                    .append(",\"title\":\"sunt aut facere repellat provident occaecati excepturi optio ").append(id)
+                    .append("\",\"body\":\"quia et suscipit\\nsuscipit recusandae consequuntur expedita et cum\\n")
+                    .append("reprehenderit molestiae ut ut quas totam\\nnostrum rerum est autem sunt rem eveniet\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,6 +3,7 @@ package org.vladislavb.onemediatesttask;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -12,6 +13,7 @@ import org.springframework.web.client.RestTemplate;
  * @author  Vladislav Baryshev
  */
 @SpringBootApplication
+@EnableScheduling
 public class OneMediaTestTaskApplication {
 
     /**
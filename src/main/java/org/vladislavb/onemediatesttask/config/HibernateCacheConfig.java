@@ -0,0 +1,45 @@
+package org.vladislavb.onemediatesttask.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * Configuration class for the Hibernate second-level cache.
+ * Creates the Caffeine JCache manager from the "caffeine.conf" classpath resource and hands it to Hibernate.
+ * Letting Hibernate resolve the configuration URI itself only works from an exploded classpath: inside the packaged
+ * jar the resource resolves to a jar URL that Caffeine cannot read, and the cache regions would be missing.
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Creates the cache manager holding the entity, natural-id and query cache regions.
+     *
+     * @return the Caffeine JCache manager.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("classpath:caffeine.conf"), HibernateCacheConfig.class.getClassLoader());
+    }
+
+    /**
+     * Registers the cache manager with Hibernate.
+     *
+     * @param hibernateCacheManager the cache manager to use for the second-level cache.
+     * @return the customizer setting the cache manager in the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
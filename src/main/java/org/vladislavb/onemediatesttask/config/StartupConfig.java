@@ -0,0 +1,41 @@
+package org.vladislavb.onemediatesttask.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.vladislavb.onemediatesttask.controller.AuthController;
+import org.vladislavb.onemediatesttask.controller.PostController;
+import org.vladislavb.onemediatesttask.controller.UserController;
+import org.vladislavb.onemediatesttask.security.jwt.JwtService;
+import org.vladislavb.onemediatesttask.service.PostService;
+import org.vladislavb.onemediatesttask.service.UserService;
+
+/**
+ * Configuration class for application startup.
+ * When lazy initialization is enabled, as it is in the "faststart" profile, beans are created on first use.
+ * The beans on the authentication and post request paths are excluded, so the first requests after startup
+ * do not pay for their creation, while rarely used beans such as the OpenAPI documentation stay lazy.
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps the controllers and services of the hot request paths eagerly initialized.
+     *
+     * @return the filter excluding hot-path beans from lazy initialization.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                AuthController.class,
+                UserController.class,
+                PostController.class,
+                UserService.class,
+                PostService.class,
+                JwtService.class,
+                PasswordEncoder.class);
+    }
+}
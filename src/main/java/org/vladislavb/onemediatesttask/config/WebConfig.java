@@ -0,0 +1,77 @@
+package org.vladislavb.onemediatesttask.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration class for Spring MVC.
+ * Registers binary CBOR and Smile message converters so that clients can exchange request and response
+ * bodies in those formats through {@code Accept} and {@code Content-Type} negotiation.
+ * Spring MVC already registers both formats when their Jackson modules are on the classpath, with mappers that
+ * ignore the application's Jackson settings, so those converters are replaced in place. They stay behind the
+ * JSON converter, so JSON remains the default format.
+ * The reactive profile registers the same formats as codecs in {@link org.vladislavb.onemediatesttask.reactive.ReactiveConfig}.
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+@Profile("!reactive")
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Media type of the Jackson Smile binary JSON format.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    /**
+     * Constructs a WebConfig with the application's Jackson object mapper builder,
+     * so binary formats share the JSON mapper settings.
+     *
+     * @param objectMapperBuilder provider of prototype-scoped, pre-configured object mapper builders.
+     */
+    public WebConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    /**
+     * Replaces the default CBOR and Smile converters with ones built from the application's object mapper
+     * settings, or appends them if the defaults are missing.
+     *
+     * @param converters the converters configured by Spring Boot.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replaceOrAdd(converters, new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        replaceOrAdd(converters, new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+    }
+
+    /**
+     * Puts the converter in place of the first converter of the same type, keeping its position.
+     *
+     * @param converters the configured converters.
+     * @param converter  the converter to register.
+     */
+    private static void replaceOrAdd(List<HttpMessageConverter<?>> converters, HttpMessageConverter<?> converter) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == converter.getClass()) {
+                converters.set(i, converter);
+                return;
+            }
+        }
+        converters.add(converter);
+    }
+}
@@ -3,7 +3,10 @@ package org.vladislavb.onemediatesttask.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +20,7 @@ import javax.naming.AuthenticationException;
 @Tag(name = "Authentication", description = "Endpoints for authentication and authorization")
 @RequiredArgsConstructor
 @RestController
+@Profile("!reactive")
 @RequestMapping("/auth")
 public class AuthController {
     private final UserService userService;
@@ -25,9 +29,11 @@ public class AuthController {
     @ApiResponse(responseCode = "200", description = "Successfully authenticated")
     @ApiResponse(responseCode = "401", description = "Invalid credentials")
     @PostMapping("/sing-in")
-    public ResponseEntity<JwtAuthenticationDto> singIn(@RequestBody UserCredentialsDto userCredentialsDto) {
+    public ResponseEntity<JwtAuthenticationDto> singIn(@RequestBody UserCredentialsDto userCredentialsDto,
+                                                       HttpServletRequest request) {
         try {
-            JwtAuthenticationDto jwtAuthenticationDto = userService.singIn(userCredentialsDto);
+            JwtAuthenticationDto jwtAuthenticationDto = userService.singIn(userCredentialsDto,
+                    request.getRemoteAddr());
             return ResponseEntity.ok(jwtAuthenticationDto);
         } catch (AuthenticationException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
@@ -38,15 +44,22 @@ public class AuthController {
     @ApiResponse(responseCode = "200", description = "Token refreshed successfully")
     @ApiResponse(responseCode = "400", description = "Invalid refresh token")
     @PostMapping("/refresh")
-    public JwtAuthenticationDto refresh(@RequestBody RefreshTokenDto refreshTokenDto) throws Exception {
-        return userService.refreshToken(refreshTokenDto);
+    public JwtAuthenticationDto refresh(@RequestBody RefreshTokenDto refreshTokenDto,
+                                        HttpServletRequest request) throws Exception {
+        return userService.refreshToken(refreshTokenDto, request.getRemoteAddr());
     }
 
-    @Operation(summary = "Logout", description = "Invalidate refresh token and log out the user.")
+    @Operation(summary = "Logout", description = "Invalidate refresh token and the access token from the " +
+            "Authorization header, if present, and log out the user.")
     @ApiResponse(responseCode = "200", description = "Logged out successfully")
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(@RequestBody RefreshTokenDto refreshTokenDto) {
-        userService.logout(refreshTokenDto);
+    public ResponseEntity<String> logout(@RequestBody RefreshTokenDto refreshTokenDto,
+                                         @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                         String authorization,
+                                         HttpServletRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        userService.logout(refreshTokenDto, accessToken, request.getRemoteAddr());
         return ResponseEntity.ok("Logged out successfully");
     }
 }
@@ -0,0 +1,30 @@
+package org.vladislavb.onemediatesttask.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.vladislavb.onemediatesttask.dto.CacheRegionStatisticsDto;
+import org.vladislavb.onemediatesttask.service.CacheStatisticsService;
+
+import java.util.List;
+
+@Tag(name = "Administration", description = "Endpoints for inspecting the application state")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheStatisticsController {
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @Operation(summary = "Cache Statistics",
+            description = "Retrieves hit and miss counts of the second-level cache regions. Requires the ADMIN role.")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "The user is not an administrator")
+    @GetMapping("/stats")
+    public List<CacheRegionStatisticsDto> getCacheStatistics() {
+        return cacheStatisticsService.getRegionStatistics();
+    }
+}
@@ -1,24 +1,41 @@
 package org.vladislavb.onemediatesttask.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.vladislavb.onemediatesttask.config.WebConfig;
+import org.vladislavb.onemediatesttask.dto.AuthorPostStatisticsDto;
+import org.vladislavb.onemediatesttask.dto.PostSnapshotDto;
 import org.vladislavb.onemediatesttask.entity.Post;
 import org.vladislavb.onemediatesttask.service.PostService;
+import org.vladislavb.onemediatesttask.service.PostSnapshotService;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @Tag(name = "Posts", description = "Endpoints for managing posts")
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/posts")
 public class PostController {
     private final PostService postService;
+    private final PostSnapshotService postSnapshotService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostSnapshotService postSnapshotService) {
         this.postService = postService;
+        this.postSnapshotService = postSnapshotService;
     }
 
     @Operation(summary = "Fetch Posts", description = "Fetches posts from an external source and saves them in the database.")
@@ -29,9 +46,65 @@ public class PostController {
     }
 
     @Operation(summary = "Get All Posts", description = "Retrieves all posts from the database.")
-    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
+    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = Post.class))))
     @GetMapping
-    public List<Post> getAllPosts() {
+    public void getAllPosts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        postService.writeAllPostsJson(response.getOutputStream());
+    }
+
+    @Operation(summary = "Get All Posts (binary)", description = "Retrieves all posts from the database encoded as CBOR or Smile.")
+    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
+    @GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public List<Post> getAllPostsBinary() {
         return postService.getAllPosts();
     }
+
+    @Operation(summary = "Get Post Fields",
+            description = "Retrieves all posts with only the requested comma-separated fields (id, userId, title, body). "
+                    + "The post body is not read from the database unless it is requested.")
+    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Unsupported field requested")
+    @GetMapping(params = "fields")
+    public List<Map<String, Object>> getPostFields(@RequestParam List<String> fields) {
+        return postService.getPostFields(fields);
+    }
+
+    @Operation(summary = "Get Post Statistics",
+            description = "Retrieves the post count, latest post ID and total body length of every author.")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/stats")
+    public List<AuthorPostStatisticsDto> getPostStatistics() {
+        return postService.getPostStatistics();
+    }
+
+    @Operation(summary = "Rebuild Post Statistics",
+            description = "Rebuilds the post statistics of every author from the database.")
+    @ApiResponse(responseCode = "200", description = "Statistics rebuilt successfully")
+    @PostMapping("/stats/rebuild")
+    public List<AuthorPostStatisticsDto> rebuildPostStatistics() {
+        return postService.rebuildPostStatistics();
+    }
+
+    @Operation(summary = "Snapshot Posts",
+            description = "Writes all posts to a compressed local snapshot file, replacing the previous snapshot. "
+                    + "Requires the ADMIN role.")
+    @ApiResponse(responseCode = "200", description = "Snapshot written successfully")
+    @ApiResponse(responseCode = "403", description = "The user is not an administrator")
+    @PostMapping("/snapshot")
+    public PostSnapshotDto snapshotPosts() throws IOException {
+        return postSnapshotService.snapshot();
+    }
+
+    @Operation(summary = "Restore Posts",
+            description = "Replaces all posts with the content of the local snapshot file. Requires the ADMIN role.")
+    @ApiResponse(responseCode = "200", description = "Snapshot restored successfully")
+    @ApiResponse(responseCode = "400", description = "No snapshot file exists")
+    @ApiResponse(responseCode = "403", description = "The user is not an administrator")
+    @PostMapping("/snapshot/restore")
+    public PostSnapshotDto restorePosts() throws IOException {
+        return postSnapshotService.restore();
+    }
 }
@@ -0,0 +1,31 @@
+package org.vladislavb.onemediatesttask.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.vladislavb.onemediatesttask.dto.SlowRequestDto;
+import org.vladislavb.onemediatesttask.timing.SlowRequestLog;
+
+import java.util.List;
+
+@Tag(name = "Administration", description = "Endpoints for inspecting the application state")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin/slow-requests")
+public class SlowRequestController {
+    private final SlowRequestLog slowRequestLog;
+
+    @Operation(summary = "Slow Requests",
+            description = "Retrieves the most recent requests above the slow request threshold with their phase timings, "
+                    + "newest first. Requires the ADMIN role.")
+    @ApiResponse(responseCode = "200", description = "Slow requests retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "The user is not an administrator")
+    @GetMapping
+    public List<SlowRequestDto> getSlowRequests() {
+        return slowRequestLog.getRecent();
+    }
+}
@@ -6,18 +6,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.web.bind.annotation.*;
 import org.vladislavb.onemediatesttask.dto.UserDto;
+import org.vladislavb.onemediatesttask.dto.UserProfileDto;
+import org.vladislavb.onemediatesttask.service.UserProfileService;
 import org.vladislavb.onemediatesttask.service.UserService;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
 @Tag(name = "Users", description = "Endpoints for managing users")
 @RestController
+@Profile("!reactive")
 @RequestMapping("/user")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final UserProfileService userProfileService;
 
     @Operation(summary = "Register User", description = "Registers a new user and returns a confirmation message.")
     @ApiResponse(responseCode = "200", description = "User registered successfully")
@@ -34,6 +43,19 @@ public class UserController {
         return userService.getUserById(id);
     }
 
+    @Operation(summary = "Get User Profile", description = "Retrieves user details together with a page of the user's "
+            + "posts. The user and the posts are queried concurrently.")
+    @ApiResponse(responseCode = "200", description = "Profile retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Page or page size out of range")
+    @ApiResponse(responseCode = "503", description = "Profile could not be loaded in time")
+    @GetMapping("/{id}/profile")
+    public UserProfileDto getUserProfile(@PathVariable Long id,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size)
+            throws ChangeSetPersister.NotFoundException, TimeoutException {
+        return userProfileService.getUserProfile(id, page, size);
+    }
+
     @Operation(summary = "Get User by Email", description = "Retrieves user details by email.")
     @ApiResponse(responseCode = "200", description = "User retrieved successfully")
     @ApiResponse(responseCode = "404", description = "User not found")
@@ -41,4 +63,20 @@ public class UserController {
     public UserDto getUserByEmail(@PathVariable String email) throws ChangeSetPersister.NotFoundException {
         return userService.getUserByEmail(email);
     }
+
+    @Operation(summary = "Get Users by IDs", description = "Retrieves the details of several users at once, keyed by user ID. "
+            + "IDs that do not exist are omitted.")
+    @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
+    @GetMapping("/batch")
+    public Map<Long, UserDto> getUsersByIds(@RequestParam List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+
+    @Operation(summary = "Get Users by IDs (body)", description = "Retrieves the details of several users whose IDs "
+            + "are sent in the request body, for ID lists too long for a query string.")
+    @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
+    @PostMapping("/batch")
+    public Map<Long, UserDto> getUsersByIdsFromBody(@RequestBody List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
 }
@@ -0,0 +1,44 @@
+package org.vladislavb.onemediatesttask.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ReadYourWritesWindow tracks recent writes so that read-only transactions started shortly after a write
+ * are served by the primary database instead of a replica that may not have caught up yet.
+ * The window is tracked per application node.
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+public class ReadYourWritesWindow {
+    private final long windowNanos;
+    private volatile long primaryUntilNanos = System.nanoTime();
+
+    /**
+     * Constructs a ReadYourWritesWindow with the configured window length.
+     *
+     * @param window how long reads stay on the primary after a write.
+     */
+    public ReadYourWritesWindow(@Value("${app.datasource.replica.read-your-writes-window:2s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records that a write has just been committed, opening a new read-your-writes window.
+     */
+    public void markWrite() {
+        primaryUntilNanos = System.nanoTime() + windowNanos;
+    }
+
+    /**
+     * Checks if reads must currently go to the primary database.
+     *
+     * @return true if a write happened within the window, false otherwise.
+     */
+    public boolean isActive() {
+        return System.nanoTime() - primaryUntilNanos < 0;
+    }
+}
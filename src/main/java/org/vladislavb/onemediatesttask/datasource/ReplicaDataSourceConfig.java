@@ -0,0 +1,104 @@
+package org.vladislavb.onemediatesttask.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplicaDataSourceConfig sets up read-replica routing when {@code app.datasource.replica.urls} is configured.
+ *
+ * <p>The application data source is a {@link LazyConnectionDataSourceProxy} over the primary database.
+ * Connections are fetched lazily, after the transaction manager has marked them read-only, so read-only
+ * transactions are served by {@link ReplicaRoutingDataSource} and all other transactions by the primary.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Creates the connection pool of the primary database from the standard {@code spring.datasource} properties.
+     *
+     * @param properties the data source properties.
+     * @return the primary connection pool.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the round-robin data source over the read replicas.
+     * Replicas share the primary credentials unless {@code app.datasource.replica.username} and
+     * {@code app.datasource.replica.password} are set.
+     *
+     * @param primaryDataSource    the primary connection pool used as fallback.
+     * @param properties           the data source properties.
+     * @param urls                 the JDBC URLs of the replicas.
+     * @param username             the replica database user.
+     * @param password             the replica user's password.
+     * @param healthCheckTimeout   the maximum time to wait for a replica during a health check.
+     * @param readYourWritesWindow the window that keeps reads on the primary after writes.
+     * @param meterRegistry        the registry used to record the replica pool metrics, if available.
+     * @return the replica routing data source.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.urls}") List<String> urls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.health-check-timeout:1s}") Duration healthCheckTimeout,
+            ReadYourWritesWindow readYourWritesWindow,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, healthCheckTimeout, readYourWritesWindow);
+    }
+
+    /**
+     * Creates the application data source that routes read-only connections to the replicas.
+     *
+     * @param primaryDataSource        the primary connection pool.
+     * @param replicaRoutingDataSource the replica routing data source.
+     * @return the routing data source used by JPA and JDBC.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,140 @@
+package org.vladislavb.onemediatesttask.datasource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReplicaRoutingDataSource hands out connections to read replicas in round-robin order.
+ * Replicas that fail the periodic health check are skipped, and connections are taken from the primary
+ * database when no replica is healthy or a read-your-writes window is active.
+ *
+ * <p>It is used as the read-only target of a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so it only serves
+ * connections of read-only transactions.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(ReplicaRoutingDataSource.class);
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration healthCheckTimeout;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Constructs a ReplicaRoutingDataSource. All replicas are considered healthy until checked.
+     *
+     * @param primary              the primary data source used as fallback.
+     * @param replicas             the replica data sources.
+     * @param healthCheckTimeout   the maximum time to wait for a replica during a health check.
+     * @param readYourWritesWindow the window that keeps reads on the primary after writes.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckTimeout,
+                                    ReadYourWritesWindow readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.healthCheckTimeout = healthCheckTimeout;
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    /**
+     * Obtains a connection from the next healthy replica, or from the primary database.
+     *
+     * @return a database connection.
+     * @throws SQLException if the connection cannot be obtained.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    /**
+     * Obtains a connection with the given credentials from the next healthy replica, or from the primary database.
+     *
+     * @param username the database user.
+     * @param password the user's password.
+     * @return a database connection.
+     * @throws SQLException if the connection cannot be obtained.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    /**
+     * Selects the data source for the next read-only connection.
+     *
+     * @return the selected replica, or the primary data source.
+     */
+    DataSource route() {
+        if (!readYourWritesWindow.isActive()) {
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                if (replica.healthy) {
+                    return replica.dataSource;
+                }
+            }
+        }
+        return primary;
+    }
+
+    /**
+     * Periodically validates a connection of every replica and takes unhealthy replicas out of rotation.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean valid;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid((int) Math.max(1, healthCheckTimeout.toSeconds()));
+            } catch (SQLException e) {
+                valid = false;
+            }
+            if (valid != replica.healthy) {
+                LOGGER.warn("Read replica {} is now {}", i, valid ? "healthy" : "unhealthy");
+            }
+            replica.healthy = valid;
+        }
+    }
+
+    /**
+     * Closes the replica data sources that hold resources, such as connection pools.
+     *
+     * @throws IOException if a replica data source fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * A replica data source together with its last known health state.
+     */
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
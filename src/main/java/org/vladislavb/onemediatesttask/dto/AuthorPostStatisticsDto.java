@@ -0,0 +1,36 @@
+package org.vladislavb.onemediatesttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for the post statistics of one author.
+ *
+ * <p>It utilizes Lombok's {@code @Data} annotation to generate boilerplate code such as getters and setters.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Data
+@AllArgsConstructor
+public class AuthorPostStatisticsDto {
+
+    /**
+     * The identifier of the user who created the posts.
+     */
+    private long userId;
+
+    /**
+     * The number of posts of the user.
+     */
+    private long postCount;
+
+    /**
+     * The ID of the user's most recent post, i.e. the one with the highest ID.
+     */
+    private long latestPostId;
+
+    /**
+     * The total length of the bodies of the user's posts, in characters.
+     */
+    private long totalBodyLength;
+}
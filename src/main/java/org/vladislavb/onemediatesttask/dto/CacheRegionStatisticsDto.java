@@ -0,0 +1,46 @@
+package org.vladislavb.onemediatesttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for the statistics of a Hibernate second-level cache region.
+ *
+ * <p>It utilizes Lombok's {@code @Data} annotation to generate boilerplate code such as getters and setters.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Data
+@AllArgsConstructor
+public class CacheRegionStatisticsDto {
+
+    /**
+     * The name of the cache region.
+     */
+    private String region;
+
+    /**
+     * The number of successful lookups in the region.
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups that did not find an entry in the region.
+     */
+    private long missCount;
+
+    /**
+     * The number of entries put into the region.
+     */
+    private long putCount;
+
+    /**
+     * The share of lookups that were hits, between 0 and 1.
+     */
+    private double hitRatio;
+
+    /**
+     * The number of entries currently held in memory, or a negative value if unknown.
+     */
+    private long elementCountInMemory;
+}
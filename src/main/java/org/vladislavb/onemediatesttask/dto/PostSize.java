@@ -0,0 +1,31 @@
+package org.vladislavb.onemediatesttask.dto;
+
+/**
+ * Closed projection of a post used to build the per-author post statistics.
+ * Only the ID, the user ID and the body length are selected, so the post body itself is never read.
+ *
+ * @author Vladislav Baryshev
+ */
+public interface PostSize {
+
+    /**
+     * Returns the unique identifier of the post.
+     *
+     * @return the post ID.
+     */
+    Long getId();
+
+    /**
+     * Returns the identifier of the user who created the post.
+     *
+     * @return the user ID.
+     */
+    Long getUserId();
+
+    /**
+     * Returns the length of the post body in characters.
+     *
+     * @return the body length, or null if the post has no body.
+     */
+    Integer getBodyLength();
+}
@@ -0,0 +1,41 @@
+package org.vladislavb.onemediatesttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) describing a snapshot of the posts table that was written or restored.
+ *
+ * <p>It utilizes Lombok's {@code @Data} annotation to generate boilerplate code such as getters and setters.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Data
+@AllArgsConstructor
+public class PostSnapshotDto {
+
+    /**
+     * The path of the snapshot file.
+     */
+    private String path;
+
+    /**
+     * The number of posts in the snapshot.
+     */
+    private long posts;
+
+    /**
+     * The number of compressed chunks in the snapshot.
+     */
+    private int chunks;
+
+    /**
+     * The size of the snapshot file in bytes.
+     */
+    private long bytes;
+
+    /**
+     * How long writing or restoring the snapshot took, in milliseconds.
+     */
+    private long durationMillis;
+}
@@ -0,0 +1,31 @@
+package org.vladislavb.onemediatesttask.dto;
+
+/**
+ * Closed Spring Data projection of a post used by list views.
+ * Only the ID, user ID and title columns are selected, so the post body is never read from the database.
+ *
+ * @author Vladislav Baryshev
+ */
+public interface PostSummary {
+
+    /**
+     * Returns the unique identifier of the post.
+     *
+     * @return the post ID.
+     */
+    Long getId();
+
+    /**
+     * Returns the identifier of the user who created the post.
+     *
+     * @return the user ID.
+     */
+    Long getUserId();
+
+    /**
+     * Returns the title of the post.
+     *
+     * @return the post title.
+     */
+    String getTitle();
+}
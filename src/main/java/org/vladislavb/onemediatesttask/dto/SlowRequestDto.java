@@ -0,0 +1,64 @@
+package org.vladislavb.onemediatesttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for a request that took longer than the slow request threshold,
+ * with the time it spent in each phase.
+ *
+ * <p>It utilizes Lombok's {@code @Data} annotation to generate boilerplate code such as getters and setters.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Data
+@AllArgsConstructor
+public class SlowRequestDto {
+
+    /**
+     * The HTTP method of the request.
+     */
+    private String method;
+
+    /**
+     * The path of the request.
+     */
+    private String path;
+
+    /**
+     * The status code of the response.
+     */
+    private int status;
+
+    /**
+     * When the request started.
+     */
+    private Instant startedAt;
+
+    /**
+     * The total duration of the request in milliseconds.
+     */
+    private double totalMillis;
+
+    /**
+     * The time spent resolving and checking the access token, in milliseconds.
+     */
+    private double tokenMillis;
+
+    /**
+     * The time spent loading the user, in milliseconds.
+     */
+    private double userMillis;
+
+    /**
+     * The remaining time until the response body started being written, in milliseconds.
+     */
+    private double serviceMillis;
+
+    /**
+     * The time spent writing the response body, in milliseconds.
+     */
+    private double writeMillis;
+}
@@ -1,6 +1,7 @@
 package org.vladislavb.onemediatesttask.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Data Transfer Object (DTO) for user details.
@@ -11,6 +12,7 @@ import lombok.Data;
  * @author Vladislav Baryshev
  */
 @Data
+@NoArgsConstructor
 public class UserDto {
 
     /**
@@ -37,4 +39,20 @@ public class UserDto {
      * The password associated with the user account.
      */
     String password;
+
+    /**
+     * Creates a UserDto without a password. Used by JPQL constructor projections,
+     * so user reads can be mapped straight from query results without loading the entity.
+     *
+     * @param userId    the unique identifier of the user.
+     * @param firstName the first name of the user.
+     * @param lastName  the last name of the user.
+     * @param email     the email address of the user.
+     */
+    public UserDto(Long userId, String firstName, String lastName, String email) {
+        this.userId = String.valueOf(userId);
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
 }
@@ -0,0 +1,39 @@
+package org.vladislavb.onemediatesttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.vladislavb.onemediatesttask.entity.Post;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a user profile: the user together with one page of the user's posts.
+ *
+ * <p>It utilizes Lombok's {@code @Data} annotation to generate boilerplate code such as getters and setters.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Data
+@AllArgsConstructor
+public class UserProfileDto {
+
+    /**
+     * The user, without the password.
+     */
+    private UserDto user;
+
+    /**
+     * The user's posts on the requested page, ordered by post ID.
+     */
+    private List<Post> posts;
+
+    /**
+     * The zero-based index of the page of posts.
+     */
+    private int page;
+
+    /**
+     * The maximum number of posts per page.
+     */
+    private int size;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
@@ -12,11 +14,14 @@ import java.util.Objects;
  * This class is mapped to the "posts" table in the database.
  *
  * <p>It contains fields for the post ID, user ID, title, and body.</p>
+ * <p>Posts are stored in the "posts" second-level cache region.</p>
  *
  * @author Vladislav Baryshev
  */
 @Entity
 @Table(name = "posts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts")
 @Getter
 @Setter
 @RequiredArgsConstructor
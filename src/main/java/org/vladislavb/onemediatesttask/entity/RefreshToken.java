@@ -0,0 +1,82 @@
+package org.vladislavb.onemediatesttask.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Entity class representing an issued refresh token.
+ * This class is mapped to the "refresh_tokens" table.
+ *
+ * <p>Only the SHA-256 hash of the token is stored, never the token itself. Tokens issued by one sign-in
+ * and all their rotations share a family ID, so that the whole chain can be revoked at once.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class RefreshToken {
+
+    /**
+     * Hex-encoded SHA-256 hash of the refresh token.
+     */
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    /**
+     * Identifier of the rotation family the token belongs to.
+     */
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    /**
+     * Identifier of the user the token was issued to.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Expiration time of the token.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Time the token was exchanged for its successor, or {@code null} if it is the current token of its family.
+     */
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    /**
+     * Compares this refresh token with another object for equality.
+     *
+     * @param o the object to compare to
+     * @return {@code true} if both have the same token hash, {@code false} otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RefreshToken that = (RefreshToken) o;
+        return Objects.equals(tokenHash, that.tokenHash);
+    }
+
+    /**
+     * Generates a hash code for this refresh token.
+     *
+     * @return the hash code value for this refresh token
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(tokenHash);
+    }
+}
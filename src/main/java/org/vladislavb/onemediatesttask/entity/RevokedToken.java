@@ -0,0 +1,69 @@
+package org.vladislavb.onemediatesttask.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Entity class representing a revoked JWT.
+ * This class is mapped to the "revoked_tokens" table, which is shared by all application nodes.
+ *
+ * <p>Only the SHA-256 hash of the token is stored, never the token itself.
+ * The revocation time is assigned by the database, so all nodes poll against the same clock.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class RevokedToken {
+
+    /**
+     * Hex-encoded SHA-256 hash of the revoked token.
+     */
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    /**
+     * Expiration time of the token, after which the row is no longer needed.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Time the token was revoked, set by the database on insert.
+     */
+    @Column(name = "revoked_at", insertable = false, updatable = false)
+    private Instant revokedAt;
+
+    /**
+     * Compares this revoked token with another object for equality.
+     *
+     * @param o the object to compare to
+     * @return {@code true} if both have the same token hash, {@code false} otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RevokedToken that = (RevokedToken) o;
+        return Objects.equals(tokenHash, that.tokenHash);
+    }
+
+    /**
+     * Generates a hash code for this revoked token.
+     *
+     * @return the hash code value for this revoked token
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(tokenHash);
+    }
+}
@@ -0,0 +1,13 @@
+package org.vladislavb.onemediatesttask.entity;
+
+/**
+ * The role of a {@link User}, stored by name in the "role" column of the "users" table.
+ * Every registered user is a {@link #USER}. {@link #ADMIN} is granted directly in the database and gives access
+ * to the endpoints that inspect or change the state of the whole application.
+ *
+ * @author Vladislav Baryshev
+ */
+public enum Role {
+    USER,
+    ADMIN
+}
@@ -8,6 +8,10 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.Objects;
 
@@ -17,11 +21,16 @@ import java.util.Objects;
  * information about a user such as their ID, first name, last name, email, and password.
  * It uses JPA annotations to define the persistence behavior and Lombok annotations for getter, setter,
  * and constructor generation.
+ * Users are stored in the "users" second-level cache region, and email lookups are resolved
+ * through the "users-by-email" natural-id cache region.
  *
  * @author Vladislav Baryshev
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Getter
 @Setter
 @RequiredArgsConstructor
@@ -50,8 +59,10 @@ public class User {
 
     /**
      * The email address of the user. This field is mapped to the "email" column in the database.
+     * It is the natural identifier of the user and is backed by a unique index.
      */
-    @Column(name = "email")
+    @NaturalId
+    @Column(name = "email", nullable = false, unique = true)
     @NotBlank(message = "Email is required")
     @Email(message = "Invalid email format")
     private String email;
@@ -69,6 +80,14 @@ public class User {
 //    )
     private String password;
 
+    /**
+     * The role of the user. This field is mapped to the "role" column in the database.
+     * New users are always created with the {@link Role#USER} role.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false)
+    private Role role = Role.USER;
+
     /**
      * Compares this user object with another object for equality.
      * Two user objects are considered equal if they have the same user ID and email.
@@ -97,7 +116,7 @@ public class User {
 
     /**
      * Returns a string representation of the user object.
-     * The string includes the user ID, first name, last name, email, and password.
+     * The string includes the user ID, first name, last name, email, password, and role.
      *
      * @return a string representation of the user object.
      */
@@ -109,6 +128,7 @@ public class User {
                 ", lastName='" + lastName + '\'' +
                 ", email='" + email + '\'' +
                 ", password='" + password + '\'' +
+                ", role=" + role +
                 '}';
     }
 }
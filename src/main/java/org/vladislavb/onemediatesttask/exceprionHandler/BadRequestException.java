@@ -0,0 +1,20 @@
+package org.vladislavb.onemediatesttask.exceprionHandler;
+
+/**
+ * BadRequestException is thrown when a request parameter is outside of what an endpoint accepts.
+ * {@link GlobalExceptionHandler} maps it to a "BAD_REQUEST" HTTP status code (400) with the exception message
+ * as the body, so the message must describe the rejected parameter and nothing else.
+ *
+ * @author Vladislav Baryshev
+ */
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Constructs a BadRequestException.
+     *
+     * @param message the reason the request was rejected, returned to the client.
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import javax.naming.AuthenticationException;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +38,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Authentication Failed" + ex.getMessage());
     }
 
+    /**
+     * Handles BadRequestException and returns a "BAD_REQUEST" HTTP status code (400)
+     * along with the reason the request was rejected.
+     *
+     * @param ex the BadRequestException that was thrown.
+     * @return a ResponseEntity containing the error message and the 400 Bad Request status.
+     */
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleBadRequestException(BadRequestException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /**
+     * Handles TimeoutException and returns a "SERVICE_UNAVAILABLE" HTTP status code (503)
+     * when a request could not be completed within its deadline.
+     *
+     * @param ex the TimeoutException that was thrown.
+     * @return a ResponseEntity containing the error message and the 503 Service Unavailable status.
+     */
+    @ExceptionHandler(TimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<String> handleTimeoutException(TimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Request timed out");
+    }
 
     /**
      * Handles any other generic exceptions and returns an "INTERNAL_SERVER_ERROR" HTTP status code (500)
@@ -0,0 +1,37 @@
+package org.vladislavb.onemediatesttask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the verification of a password against its BCrypt hash.
+ *
+ * @author Vladislav Baryshev
+ */
+@Name("onemedia.PasswordVerification")
+@Label("Password Verification")
+@Category({"OneMedia", "Security"})
+@Description("Verification of a password against its BCrypt hash")
+@StackTrace(false)
+public final class PasswordVerificationEvent extends Event {
+
+    @Label("Matched")
+    private boolean matched;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     *
+     * @param matched whether the password matched the hash.
+     */
+    public void commit(boolean matched) {
+        end();
+        if (shouldCommit()) {
+            this.matched = matched;
+            commit();
+        }
+    }
+}
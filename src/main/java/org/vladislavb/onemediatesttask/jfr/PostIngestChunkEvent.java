@@ -0,0 +1,77 @@
+package org.vladislavb.onemediatesttask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Flight Recorder event for a chunk of posts written to the database, either fetched from the upstream
+ * or restored from a snapshot.
+ *
+ * @author Vladislav Baryshev
+ */
+@Name("onemedia.PostIngestChunk")
+@Label("Post Ingest Chunk")
+@Category({"OneMedia", "Posts"})
+@Description("A chunk of posts written to the database")
+@StackTrace(false)
+public final class PostIngestChunkEvent extends Event {
+
+    @Label("Source")
+    @Description("Where the posts came from: upstream or snapshot")
+    private String source;
+
+    @Label("Rows")
+    private int rows;
+
+    @Label("Bytes")
+    @Description("The UTF-8 size of the titles and bodies of the posts")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     * The size is only computed if the event is committed.
+     *
+     * @param source where the posts came from.
+     * @param rows   the number of posts.
+     * @param bytes  supplier of the size of the posts.
+     */
+    public void commit(String source, int rows, LongSupplier bytes) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.rows = rows;
+            this.bytes = bytes.getAsLong();
+            commit();
+        }
+    }
+
+    /**
+     * Computes the UTF-8 size of a string without encoding it.
+     *
+     * @param value the string, or null.
+     * @return the number of bytes of its UTF-8 encoding, 0 for null.
+     */
+    public static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long bytes = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                bytes += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,43 @@
+package org.vladislavb.onemediatesttask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a sign-in, from the credential check to the issued tokens.
+ *
+ * @author Vladislav Baryshev
+ */
+@Name("onemedia.SignIn")
+@Label("Sign-In")
+@Category({"OneMedia", "Security"})
+@Description("Sign-in with email and password")
+@StackTrace(false)
+public final class SignInEvent extends Event {
+
+    @Label("User ID")
+    @Description("The ID of the signed-in user, 0 if the sign-in failed")
+    private long userId;
+
+    @Label("Success")
+    private boolean success;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     *
+     * @param userId  the ID of the signed-in user, or null if the sign-in failed.
+     * @param success whether the sign-in succeeded.
+     */
+    public void commit(Long userId, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.userId = userId == null ? 0 : userId;
+            this.success = success;
+            commit();
+        }
+    }
+}
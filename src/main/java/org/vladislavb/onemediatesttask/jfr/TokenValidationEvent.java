@@ -0,0 +1,47 @@
+package org.vladislavb.onemediatesttask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for the validation of an access token.
+ * Validations happen on every authenticated request, so by default only those taking at least 1 ms are recorded.
+ *
+ * @author Vladislav Baryshev
+ */
+@Name("onemedia.TokenValidation")
+@Label("Token Validation")
+@Category({"OneMedia", "Security"})
+@Description("Validation of an access token and extraction of its user")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class TokenValidationEvent extends Event {
+
+    @Label("Mode")
+    @Description("The kind of access token: jwt or opaque")
+    private String mode;
+
+    @Label("Outcome")
+    @Description("valid, or why the token was rejected")
+    private String outcome;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     *
+     * @param mode    the kind of access token.
+     * @param outcome the outcome of the validation.
+     */
+    public void commit(String mode, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.mode = mode;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
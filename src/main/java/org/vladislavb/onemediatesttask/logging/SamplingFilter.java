@@ -0,0 +1,74 @@
+package org.vladislavb.onemediatesttask.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SamplingFilter is a Logback turbo filter that keeps only every n-th enabled event of the loggers under
+ * a given prefix at or below a given level, and leaves all other events alone.
+ * Turbo filters run before a logging event is created, so sampled-out events cost no allocation and never
+ * reach an appender. Used to keep a representative sample of per-statement SQL logging.
+ *
+ * @author Vladislav Baryshev
+ */
+public class SamplingFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private String loggerPrefix = "org.hibernate.SQL";
+    private Level level = Level.DEBUG;
+    private int rate = 100;
+
+    /**
+     * Decides whether the event is kept.
+     * Events of other loggers, events above the sampled level and events the logger would not log anyway
+     * are left to the regular level check.
+     *
+     * @param marker the marker of the event.
+     * @param logger the logger the event is logged through.
+     * @param level  the level of the event.
+     * @param format the message format.
+     * @param params the message parameters.
+     * @param t      the throwable of the event.
+     * @return {@link FilterReply#DENY} for sampled-out events, {@link FilterReply#NEUTRAL} otherwise.
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.toInt() > this.level.toInt() || !logger.getName().startsWith(loggerPrefix)
+                || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Sets the prefix of the logger names that are sampled.
+     *
+     * @param loggerPrefix the logger name prefix.
+     */
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    /**
+     * Sets the most severe level that is sampled. Events above it are always kept.
+     *
+     * @param level the level name, for example DEBUG.
+     */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.DEBUG);
+    }
+
+    /**
+     * Sets how many events share one kept event, 1 keeps all of them.
+     *
+     * @param rate the sampling rate, at least 1.
+     */
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+}
@@ -1,6 +1,7 @@
 package org.vladislavb.onemediatesttask.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
 import org.vladislavb.onemediatesttask.dto.UserDto;
@@ -26,6 +27,15 @@ public interface UserMapper {
      */
     UserDto toDto(User user);
 
+    /**
+     * Converts a User entity to a UserDto without the password, for responses that list other users.
+     *
+     * @param user the User entity to be converted.
+     * @return the converted UserDto with an empty password.
+     */
+    @Mapping(target = "password", ignore = true)
+    UserDto toPublicDto(User user);
+
     /**
      * Converts a UserDto to a User entity.
      *
@@ -0,0 +1,165 @@
+package org.vladislavb.onemediatesttask.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.vladislavb.onemediatesttask.config.WebConfig;
+import org.vladislavb.onemediatesttask.reactive.repository.ReactiveUserRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Configuration of the reactive stack, active with the "reactive" profile.
+ * Serves requests from Netty event loops, which Spring Boot would not pick while Tomcat is on the classpath.
+ * Enables the R2DBC repositories of the reactive package, registers the CBOR and Smile codecs with the
+ * application's Jackson settings, like {@link org.vladislavb.onemediatesttask.config.WebConfig} does for
+ * Spring MVC, and provides the web client and the transactional operator used by the reactive services.
+ *
+ * <p>Spring Boot does not create a JDBC data source once an R2DBC connection factory exists, so the data
+ * source used by Flyway, JPA and the token services is defined here, the same way the auto-configuration
+ * would. With read replicas configured, {@link org.vladislavb.onemediatesttask.datasource.ReplicaDataSourceConfig}
+ * defines the data sources instead.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveUserRepository.class)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    /**
+     * Constructs a ReactiveConfig with the application's Jackson object mapper and its builder,
+     * so binary formats share the JSON mapper settings.
+     *
+     * @param objectMapper        the application's JSON object mapper.
+     * @param objectMapperBuilder provider of prototype-scoped, pre-configured object mapper builders.
+     */
+    public ReactiveConfig(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapper = objectMapper;
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    /**
+     * Registers the CBOR codecs behind JSON and replaces the default Smile codecs with ones using the application's mapper.
+     *
+     * @param configurer the codec configurer.
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ObjectMapper cborMapper = objectMapperBuilder.getObject().factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = objectMapperBuilder.getObject().factory(new SmileFactory()).build();
+        MediaType smile = MediaType.parseMediaType(WebConfig.APPLICATION_SMILE_VALUE);
+        // Custom codecs are consulted before the default ones. Registering the JSON encoder first keeps JSON
+        // the default response format, as on the servlet stack.
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        // The media types must be given explicitly, the codecs default to the JSON media types otherwise.
+        configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, smile));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, smile));
+    }
+
+    /**
+     * Provides the Netty web server, so that requests are served by a few event loop threads
+     * instead of a thread per request.
+     *
+     * @return the Netty server factory.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Creates the connection pool of the database from the standard {@code spring.datasource} properties.
+     *
+     * @param properties the data source properties.
+     * @return the connection pool.
+     */
+    @Bean
+    @ConditionalOnExpression("'${app.datasource.replica.urls:}' == ''")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Provides the non-blocking HTTP client used to fetch posts from the external API.
+     *
+     * @param builder the web client builder configured by Spring Boot.
+     * @return the web client.
+     */
+    @Bean
+    public WebClient webClient(WebClient.Builder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Provides the operator that runs reactive pipelines in R2DBC transactions.
+     * The R2DBC transaction manager is deliberately not registered as a bean, so that
+     * {@code @Transactional} methods keep using the JPA transaction manager.
+     *
+     * @param connectionFactory the R2DBC connection factory.
+     * @return the transactional operator.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        R2dbcTransactionManager transactionManager = new R2dbcTransactionManager(connectionFactory);
+        transactionManager.afterPropertiesSet();
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    /**
+     * A CBOR encoder that encodes single values. Spring's encoder rejects every publisher,
+     * although handlers only ever return one value, such as a list of posts, as CBOR.
+     */
+    private static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
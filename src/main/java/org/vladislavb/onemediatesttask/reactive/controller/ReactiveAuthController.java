@@ -0,0 +1,68 @@
+package org.vladislavb.onemediatesttask.reactive.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.vladislavb.onemediatesttask.dto.JwtAuthenticationDto;
+import org.vladislavb.onemediatesttask.dto.RefreshTokenDto;
+import org.vladislavb.onemediatesttask.dto.UserCredentialsDto;
+import org.vladislavb.onemediatesttask.reactive.service.ReactiveUserService;
+import reactor.core.publisher.Mono;
+
+import javax.naming.AuthenticationException;
+import java.net.InetSocketAddress;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.controller.AuthController},
+ * serving the same endpoints with the "reactive" profile.
+ *
+ * @author Vladislav Baryshev
+ */
+@RequiredArgsConstructor
+@RestController
+@Profile("reactive")
+@RequestMapping("/auth")
+public class ReactiveAuthController {
+    private final ReactiveUserService userService;
+
+    @PostMapping("/sing-in")
+    public Mono<ResponseEntity<JwtAuthenticationDto>> singIn(@RequestBody UserCredentialsDto userCredentialsDto,
+                                                             ServerHttpRequest request) {
+        return userService.singIn(userCredentialsDto, clientIp(request))
+                .map(ResponseEntity::ok)
+                .onErrorResume(AuthenticationException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null)));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<JwtAuthenticationDto> refresh(@RequestBody RefreshTokenDto refreshTokenDto,
+                                              ServerHttpRequest request) {
+        return userService.refreshToken(refreshTokenDto, clientIp(request));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<String>> logout(@RequestBody RefreshTokenDto refreshTokenDto,
+                                               @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                               String authorization,
+                                               ServerHttpRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        return userService.logout(refreshTokenDto, accessToken, clientIp(request))
+                .thenReturn(ResponseEntity.ok("Logged out successfully"));
+    }
+
+    /**
+     * Returns the address of the client, like {@code HttpServletRequest#getRemoteAddr()} on the servlet stack.
+     *
+     * @param request the current request.
+     * @return the client IP address, or null if unknown.
+     */
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        return address == null || address.getAddress() == null ? null : address.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,81 @@
+package org.vladislavb.onemediatesttask.reactive.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.vladislavb.onemediatesttask.config.WebConfig;
+import org.vladislavb.onemediatesttask.dto.AuthorPostStatisticsDto;
+import org.vladislavb.onemediatesttask.dto.PostSnapshotDto;
+import org.vladislavb.onemediatesttask.entity.Post;
+import org.vladislavb.onemediatesttask.reactive.service.ReactivePostService;
+import org.vladislavb.onemediatesttask.service.PostSnapshotService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.controller.PostController},
+ * serving the same endpoints with the "reactive" profile.
+ *
+ * @author Vladislav Baryshev
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/posts")
+public class ReactivePostController {
+    private final ReactivePostService postService;
+    private final PostSnapshotService postSnapshotService;
+
+    public ReactivePostController(ReactivePostService postService, PostSnapshotService postSnapshotService) {
+        this.postService = postService;
+        this.postSnapshotService = postSnapshotService;
+    }
+
+    @GetMapping("/fetch")
+    public Mono<List<Post>> fetchPosts() {
+        return postService.fetchAndSavePosts();
+    }
+
+    @GetMapping
+    public Mono<Void> getAllPosts(ServerHttpResponse response) {
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(postService.getAllPostsJson(response.bufferFactory()));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public Mono<List<Post>> getAllPostsBinary() {
+        return postService.getAllPosts();
+    }
+
+    @GetMapping(params = "fields")
+    public Mono<List<Map<String, Object>>> getPostFields(@RequestParam List<String> fields) {
+        return postService.getPostFields(fields);
+    }
+
+    @GetMapping("/stats")
+    public Mono<List<AuthorPostStatisticsDto>> getPostStatistics() {
+        return postService.getPostStatistics();
+    }
+
+    @PostMapping("/stats/rebuild")
+    public Mono<List<AuthorPostStatisticsDto>> rebuildPostStatistics() {
+        return postService.rebuildPostStatistics();
+    }
+
+    @PostMapping("/snapshot")
+    public Mono<PostSnapshotDto> snapshotPosts() {
+        return Mono.fromCallable(postSnapshotService::snapshot).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/snapshot/restore")
+    public Mono<PostSnapshotDto> restorePosts() {
+        return Mono.fromCallable(postSnapshotService::restore).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,62 @@
+package org.vladislavb.onemediatesttask.reactive.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.vladislavb.onemediatesttask.dto.UserDto;
+import org.vladislavb.onemediatesttask.dto.UserProfileDto;
+import org.vladislavb.onemediatesttask.reactive.service.ReactiveUserProfileService;
+import org.vladislavb.onemediatesttask.reactive.service.ReactiveUserService;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.controller.UserController},
+ * serving the same endpoints with the "reactive" profile.
+ *
+ * @author Vladislav Baryshev
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/user")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+    private final ReactiveUserProfileService userProfileService;
+
+    @PostMapping("/registration")
+    public Mono<String> createUser(@Valid @RequestBody UserDto userDto) {
+        return userService.addUser(userDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<UserDto> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id);
+    }
+
+    @GetMapping("/{id}/profile")
+    public Mono<UserProfileDto> getUserProfile(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "20") int size) {
+        return userProfileService.getUserProfile(id, page, size);
+    }
+
+    @GetMapping("/email/{email}")
+    public Mono<UserDto> getUserByEmail(@PathVariable String email) {
+        return userService.getUserByEmail(email);
+    }
+
+    @GetMapping("/batch")
+    public Mono<Map<Long, UserDto>> getUsersByIds(@RequestParam List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+
+    @PostMapping("/batch")
+    public Mono<Map<Long, UserDto>> getUsersByIdsFromBody(@RequestBody List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+}
@@ -0,0 +1,38 @@
+package org.vladislavb.onemediatesttask.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import org.vladislavb.onemediatesttask.entity.Post;
+
+/**
+ * R2DBC mapping of a row of the "posts" table, used by the reactive stack.
+ * The table is owned by the {@link Post} entity and its Flyway migrations.
+ * Post IDs are assigned by the external API, never by the database.
+ *
+ * @param id     the identifier of the post.
+ * @param userId the identifier of the user who created the post.
+ * @param title  the title of the post.
+ * @param body   the content of the post.
+ * @author Vladislav Baryshev
+ */
+@Table("posts")
+public record PostRecord(@Id Long id,
+                         @Column("user_id") Long userId,
+                         String title,
+                         String body) {
+
+    /**
+     * Converts this row to a detached {@link Post}, so responses and the JSON cache match the servlet stack.
+     *
+     * @return the post.
+     */
+    public Post toPost() {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle(title);
+        post.setBody(body);
+        return post;
+    }
+}
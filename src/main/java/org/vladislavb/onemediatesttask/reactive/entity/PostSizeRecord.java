@@ -0,0 +1,34 @@
+package org.vladislavb.onemediatesttask.reactive.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+import org.vladislavb.onemediatesttask.dto.PostSize;
+
+/**
+ * R2DBC mapping of the author and body length of a post, used to build the per-author post statistics.
+ * Spring Data R2DBC projects interfaces through the domain type, which has no body length column,
+ * so the query result is mapped to this record instead.
+ *
+ * @param id         the identifier of the post.
+ * @param userId     the identifier of the user who created the post.
+ * @param bodyLength the length of the post body in characters.
+ * @author Vladislav Baryshev
+ */
+public record PostSizeRecord(Long id,
+                             @Column("user_id") Long userId,
+                             @Column("body_length") Integer bodyLength) implements PostSize {
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public Integer getBodyLength() {
+        return bodyLength;
+    }
+}
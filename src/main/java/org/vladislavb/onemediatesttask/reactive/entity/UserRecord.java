@@ -0,0 +1,44 @@
+package org.vladislavb.onemediatesttask.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import org.vladislavb.onemediatesttask.entity.Role;
+import org.vladislavb.onemediatesttask.entity.User;
+
+/**
+ * R2DBC mapping of a row of the "users" table, used by the reactive stack.
+ * The table is owned by the {@link User} entity and its Flyway migrations.
+ *
+ * @param userId    the unique identifier of the user, generated by the database.
+ * @param firstName the first name of the user.
+ * @param lastName  the last name of the user.
+ * @param email     the email address of the user.
+ * @param password  the password hash of the user.
+ * @param role      the role of the user.
+ * @author Vladislav Baryshev
+ */
+@Table("users")
+public record UserRecord(@Id @Column("user_id") Long userId,
+                         @Column("first_name") String firstName,
+                         @Column("last_name") String lastName,
+                         String email,
+                         String password,
+                         Role role) {
+
+    /**
+     * Converts this row to a detached {@link User}, for code shared with the servlet stack.
+     *
+     * @return the user.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setUserId(userId);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setRole(role);
+        return user;
+    }
+}
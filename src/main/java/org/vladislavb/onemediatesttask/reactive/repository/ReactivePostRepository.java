@@ -0,0 +1,43 @@
+package org.vladislavb.onemediatesttask.reactive.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import org.vladislavb.onemediatesttask.dto.PostSummary;
+import org.vladislavb.onemediatesttask.reactive.entity.PostRecord;
+import org.vladislavb.onemediatesttask.reactive.entity.PostSizeRecord;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReactivePostRepository is a Spring Data R2DBC repository for the "posts" table, used by the reactive stack.
+ *
+ * @author Vladislav Baryshev
+ */
+@Repository
+public interface ReactivePostRepository extends R2dbcRepository<PostRecord, Long> {
+
+    /**
+     * Retrieves all posts ordered by ID, without the body column.
+     *
+     * @return a Flux emitting post summaries ordered by ID.
+     */
+    Flux<PostSummary> findSummariesByOrderByIdAsc();
+
+    /**
+     * Retrieves one page of the posts of a user ordered by ID.
+     *
+     * @param userId   the user ID.
+     * @param pageable the page to retrieve.
+     * @return a Flux emitting the posts on the page.
+     */
+    Flux<PostRecord> findByUserIdOrderByIdAsc(Long userId, Pageable pageable);
+
+    /**
+     * Retrieves the author and body length of all posts, computed by the database.
+     *
+     * @return a Flux emitting post sizes.
+     */
+    @Query("SELECT id, user_id, LENGTH(body) AS body_length FROM posts")
+    Flux<PostSizeRecord> findAllSizes();
+}
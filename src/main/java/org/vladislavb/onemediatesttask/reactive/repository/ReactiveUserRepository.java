@@ -0,0 +1,23 @@
+package org.vladislavb.onemediatesttask.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import org.vladislavb.onemediatesttask.reactive.entity.UserRecord;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveUserRepository is a Spring Data R2DBC repository for the "users" table, used by the reactive stack.
+ *
+ * @author Vladislav Baryshev
+ */
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, Long> {
+
+    /**
+     * Retrieves a user by their email address, using the unique email index.
+     *
+     * @param email the email address of the user.
+     * @return a Mono emitting the user, or empty if not found.
+     */
+    Mono<UserRecord> findByEmail(String email);
+}
@@ -0,0 +1,86 @@
+package org.vladislavb.onemediatesttask.reactive.security;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.vladislavb.onemediatesttask.security.concurrency.ConcurrencyLimit;
+import org.vladislavb.onemediatesttask.security.concurrency.ConcurrencyLimiter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.security.concurrency.ConcurrencyLimitFilter}.
+ * Runs ahead of {@link JwtWebFilter} and rejects requests of route groups at their limit with 503.
+ * A request holds its slot until its response completes; cancelled requests give the slot back without
+ * contributing their latency. Added to the security filter chain by {@link ReactiveSecurityConfig}, not a bean.
+ *
+ * @author Vladislav Baryshev
+ */
+public class ConcurrencyLimitWebFilter implements WebFilter {
+    private static final byte[] REJECTED_MESSAGE = "Service is overloaded, retry later"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Constructs a ConcurrencyLimitWebFilter.
+     *
+     * @param concurrencyLimiter the limits to enforce.
+     */
+    public ConcurrencyLimitWebFilter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Takes a slot of the request's route group for the lifetime of the request,
+     * or answers with 503 if the group is at its limit.
+     *
+     * @param exchange the current server exchange.
+     * @param chain    the rest of the filter chain.
+     * @return a Mono completing when the request has been handled.
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        ConcurrencyLimit limit = concurrencyLimiter.limitOf(exchange.getRequest().getPath().value());
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+        int inflight = limit.tryAcquire();
+        if (inflight == 0) {
+            return reject(limit, exchange.getResponse());
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.releaseWithoutSample();
+                    } else {
+                        limit.release(start, inflight);
+                    }
+                });
+    }
+
+    /**
+     * Answers with 503 and a {@code Retry-After} hint.
+     *
+     * @param limit    the limit that was reached.
+     * @param response the response to write.
+     * @return a Mono completing when the response has been written.
+     */
+    private Mono<Void> reject(ConcurrencyLimit limit, ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(limit.getRetryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        DataBuffer body = response.bufferFactory().wrap(REJECTED_MESSAGE);
+        return response.writeWith(Mono.just(body));
+    }
+}
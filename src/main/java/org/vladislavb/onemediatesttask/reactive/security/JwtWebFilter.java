@@ -0,0 +1,136 @@
+package org.vladislavb.onemediatesttask.reactive.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.vladislavb.onemediatesttask.security.jwt.JwtService;
+import org.vladislavb.onemediatesttask.timing.RequestTimings;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.security.jwt.JwtFilter}.
+ * If a valid token that has not been invalidated is found in the Authorization header, the user is loaded
+ * and the authentication is written into the reactive security context of the rest of the chain.
+ *
+ * <p>Revocation checks are answered from the local Bloom filter and near-cache when possible; only the rare
+ * checks that need the database are moved to the bounded elastic scheduler. This filter is added to the
+ * security filter chain by {@link ReactiveSecurityConfig} and is deliberately not a bean, so that it is not
+ * registered a second time as a global web filter.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+public class JwtWebFilter implements WebFilter {
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final Timer filterTimer;
+
+    /**
+     * Constructs a JwtWebFilter with the services used to validate tokens and load users.
+     *
+     * @param jwtService         the service used to validate tokens, extract the email and check invalidations.
+     * @param userDetailsService the service used to load the authenticated user.
+     * @param meterRegistry      the registry used to record the filter overhead.
+     */
+    public JwtWebFilter(JwtService jwtService, ReactiveUserDetailsService userDetailsService,
+                        MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.filterTimer = Timer.builder("onemedia.jwt.filter")
+                .description("Time spent authenticating a request in the JWT filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Authenticates the request if it carries a valid token and continues the chain.
+     *
+     * @param exchange the current server exchange.
+     * @param chain    the rest of the filter chain.
+     * @return a Mono completing when the request has been handled.
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        long start = System.nanoTime();
+        RequestTimings timings = exchange.getAttribute(RequestTimings.ATTRIBUTE);
+        String token = getTokenFromRequest(exchange.getRequest());
+        String email = token == null ? null : jwtService.resolveEmail(token);
+        if (email == null) {
+            RequestTimings.record(timings, RequestTimings.Phase.TOKEN, start);
+            filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return chain.filter(exchange);
+        }
+        return isRevoked(token)
+                .doOnNext(revoked -> RequestTimings.record(timings, RequestTimings.Phase.TOKEN, start))
+                .filter(revoked -> !revoked)
+                .flatMap(revoked -> findUser(email, timings))
+                .map(user -> Optional.<Authentication>of(
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> {
+                    filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return authentication
+                            .map(value -> chain.filter(exchange)
+                                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(value)))
+                            .orElseGet(() -> chain.filter(exchange));
+                });
+    }
+
+    /**
+     * Loads the user of a valid token, recording the time as the user phase of the request.
+     *
+     * @param email   the email address of the token's user.
+     * @param timings the timings of the request, or null if the request is not timed.
+     * @return a Mono emitting the user, or empty if the user does not exist.
+     */
+    private Mono<UserDetails> findUser(String email, RequestTimings timings) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return userDetailsService.findByUsername(email)
+                    .doFinally(signal -> RequestTimings.record(timings, RequestTimings.Phase.USER, start));
+        });
+    }
+
+    /**
+     * Checks if the token has been invalidated, without blocking the calling thread.
+     *
+     * @param token the JWT token to check.
+     * @return a Mono emitting true if the token is invalidated, false otherwise.
+     */
+    private Mono<Boolean> isRevoked(String token) {
+        Boolean revoked = jwtService.isTokenInvalidatedLocally(token);
+        if (revoked != null) {
+            return Mono.just(revoked);
+        }
+        return Mono.fromCallable(() -> jwtService.isTokenInvalidated(token))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Retrieves the JWT token from the Authorization header of the request.
+     * The token is expected to be prefixed with "Bearer ".
+     *
+     * @param request the HTTP request.
+     * @return the JWT token, or null if no token is found.
+     */
+    private String getTokenFromRequest(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package org.vladislavb.onemediatesttask.reactive.security;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.vladislavb.onemediatesttask.security.ratelimit.RateLimitDecision;
+import org.vladislavb.onemediatesttask.security.ratelimit.RateLimiter;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.security.ratelimit.RateLimitFilter}.
+ * Runs right after {@link JwtWebFilter} and rejects requests of subjects over their quota with 429.
+ * Like {@link JwtWebFilter}, it is added to the security filter chain by {@link ReactiveSecurityConfig}
+ * and is not a bean.
+ *
+ * @author Vladislav Baryshev
+ */
+public class RateLimitWebFilter implements WebFilter {
+    private static final byte[] REJECTED_MESSAGE = "Too many requests".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs a RateLimitWebFilter.
+     *
+     * @param rateLimiter the quotas to enforce.
+     */
+    public RateLimitWebFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Takes the request from the quota of the authenticated subject, adds the rate limit headers
+     * and either continues the chain or answers with 429.
+     *
+     * @param exchange the current server exchange.
+     * @param chain    the rest of the filter chain.
+     * @return a Mono completing when the request has been handled.
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .mapNotNull(authentication -> rateLimiter.tryAcquire(authentication.getName(), path))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(decision -> decision
+                        .map(value -> apply(value, exchange, chain))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    /**
+     * Adds the rate limit headers and continues the chain or rejects the request.
+     *
+     * @param decision the quota decision.
+     * @param exchange the current server exchange.
+     * @param chain    the rest of the filter chain.
+     * @return a Mono completing when the request has been handled.
+     */
+    private Mono<Void> apply(RateLimitDecision decision, ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        decision.headers().forEach(response.getHeaders()::set);
+        if (decision.allowed()) {
+            return chain.filter(exchange);
+        }
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        DataBuffer body = response.bufferFactory().wrap(REJECTED_MESSAGE);
+        return response.writeWith(Mono.just(body));
+    }
+}
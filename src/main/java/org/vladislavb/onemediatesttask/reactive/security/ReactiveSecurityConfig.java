@@ -0,0 +1,82 @@
+package org.vladislavb.onemediatesttask.reactive.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.vladislavb.onemediatesttask.entity.Role;
+import org.vladislavb.onemediatesttask.security.concurrency.ConcurrencyLimiter;
+import org.vladislavb.onemediatesttask.security.jwt.JwtService;
+import org.vladislavb.onemediatesttask.security.ratelimit.RateLimiter;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.security.SecurityConfig}, active with the
+ * "reactive" profile. Applies the same access rules: registration, authentication, API documentation and the
+ * public actuator endpoints are open, the administration and post snapshot endpoints require the ADMIN role, and
+ * everything else requires a valid access token.
+ *
+ * <p>HTTP basic authentication, form login, logout handling and CSRF protection are disabled, and no security
+ * context is stored between requests. Unauthenticated requests are rejected with 403, like on the servlet stack.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    /**
+     * Configures the security filter chain of the reactive stack, with the {@link JwtWebFilter}
+     * at the authentication position, preceded by the {@link ConcurrencyLimitWebFilter} and followed by the
+     * {@link RateLimitWebFilter}.
+     *
+     * @param http                   the reactive HTTP security builder.
+     * @param jwtService             the service used to validate tokens and track invalidated ones.
+     * @param userDetailsService     the service used to load the authenticated user.
+     * @param rateLimiter            the quotas of authenticated subjects.
+     * @param concurrencyLimiter     the adaptive concurrency limits of the route groups.
+     * @param meterRegistry          the registry used to record the filter overhead.
+     * @return the configured {@link SecurityWebFilterChain}.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService,
+                                                         ReactiveUserDetailsService userDetailsService,
+                                                         RateLimiter rateLimiter,
+                                                         ConcurrencyLimiter concurrencyLimiter,
+                                                         MeterRegistry meterRegistry) {
+        return http
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .authorizeExchange(exchanges -> exchanges.pathMatchers
+                                (
+                                        "/user/registration",
+                                        "/auth/**",
+                                        "/swagger-ui/**",
+                                        "/v3/api-docs/**",
+                                        "/actuator/health/**",
+                                        "/actuator/info",
+                                        "/actuator/prometheus"
+                                ).permitAll()
+                        .pathMatchers("/admin/**", "/api/posts/snapshot/**").hasRole(Role.ADMIN.name())
+                        .anyExchange().authenticated())
+                .addFilterBefore(new ConcurrencyLimitWebFilter(concurrencyLimiter),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAt(new JwtWebFilter(jwtService, userDetailsService, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAfter(new RateLimitWebFilter(rateLimiter), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package org.vladislavb.onemediatesttask.reactive.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.vladislavb.onemediatesttask.reactive.repository.ReactiveUserRepository;
+import org.vladislavb.onemediatesttask.security.CustomUserDetails;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.security.CustomUserServiceImpl}.
+ * Loads a user by email through R2DBC and wraps it in the same {@link CustomUserDetails} as the servlet stack.
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService {
+    private final ReactiveUserRepository userRepository;
+
+    /**
+     * Loads the user details by username (email) from the database.
+     *
+     * @param username the email address of the user to load.
+     * @return a Mono emitting the user details, or empty if the user is not found.
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByEmail(username).map(user -> new CustomUserDetails(user.toUser()));
+    }
+}
@@ -0,0 +1,255 @@
+package org.vladislavb.onemediatesttask.reactive.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.vladislavb.onemediatesttask.dto.AuthorPostStatisticsDto;
+import org.vladislavb.onemediatesttask.entity.Post;
+import org.vladislavb.onemediatesttask.exceprionHandler.BadRequestException;
+import org.vladislavb.onemediatesttask.jfr.PostIngestChunkEvent;
+import org.vladislavb.onemediatesttask.reactive.entity.PostRecord;
+import org.vladislavb.onemediatesttask.reactive.repository.ReactivePostRepository;
+import org.vladislavb.onemediatesttask.service.PostJsonCache;
+import org.vladislavb.onemediatesttask.service.PostService;
+import org.vladislavb.onemediatesttask.service.PostStatistics;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive counterpart of {@link PostService}, active with the "reactive" profile.
+ * Posts are fetched with a non-blocking {@link WebClient} and read and written through R2DBC.
+ * List responses are served from the same {@link PostJsonCache}, and author statistics from the same
+ * {@link PostStatistics}, as on the servlet stack.
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+@Profile("reactive")
+public class ReactivePostService {
+
+    private final ReactivePostRepository postRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    private final WebClient webClient;
+    private final PostJsonCache postJsonCache;
+    private final PostStatistics postStatistics;
+    private final String upstreamUrl;
+    private final Timer fetchTimer;
+    private final Timer persistTimer;
+    private final Counter persistedPosts;
+
+    /**
+     * Constructs a ReactivePostService.
+     *
+     * @param postRepository        the R2DBC repository of posts.
+     * @param entityTemplate        the template used to insert and update posts with assigned IDs.
+     * @param transactionalOperator the operator running the ingest in one R2DBC transaction.
+     * @param webClient             the client used to fetch posts from the external API.
+     * @param postJsonCache         the cache of pre-encoded post JSON used for list responses.
+     * @param postStatistics        the per-author post statistics maintained during ingest.
+     * @param upstreamUrl           the URL of the external API the posts are fetched from.
+     * @param meterRegistry         the registry used to record the ingest phases.
+     */
+    public ReactivePostService(ReactivePostRepository postRepository, R2dbcEntityTemplate entityTemplate,
+                               TransactionalOperator transactionalOperator, WebClient webClient,
+                               PostJsonCache postJsonCache, PostStatistics postStatistics,
+                               @Value("${app.posts.upstream-url:https://jsonplaceholder.typicode.com/posts}")
+                               String upstreamUrl,
+                               MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.entityTemplate = entityTemplate;
+        this.transactionalOperator = transactionalOperator;
+        this.webClient = webClient;
+        this.postJsonCache = postJsonCache;
+        this.postStatistics = postStatistics;
+        this.upstreamUrl = upstreamUrl;
+        this.fetchTimer = Timer.builder("onemedia.posts.ingest")
+                .description("Time spent in each phase of the post ingest")
+                .tag("phase", "fetch")
+                .register(meterRegistry);
+        this.persistTimer = Timer.builder("onemedia.posts.ingest")
+                .description("Time spent in each phase of the post ingest")
+                .tag("phase", "persist")
+                .register(meterRegistry);
+        this.persistedPosts = Counter.builder("onemedia.posts.persisted")
+                .description("Number of posts written by the post ingest")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches posts from the external API and saves them to the database in one transaction.
+     * Existing posts are looked up with a single {@code IN} query, then each post is updated or inserted.
+     * Cached JSON is re-encoded only for the posts whose content has changed, and the per-author statistics
+     * are updated with the saved posts.
+     *
+     * @return a Mono emitting the saved posts.
+     */
+    public Mono<List<Post>> fetchAndSavePosts() {
+        Mono<List<PostRecord>> fetched = webClient.get()
+                .uri(upstreamUrl)
+                .retrieve()
+                .bodyToFlux(PostRecord.class)
+                .collectList();
+        return timed(fetchTimer, fetched)
+                .flatMap(posts -> timed(persistTimer, recorded(save(posts))))
+                .map(saved -> {
+                    List<Post> posts = saved.stream().map(PostRecord::toPost).toList();
+                    persistedPosts.increment(posts.size());
+                    postJsonCache.refresh(posts);
+                    postStatistics.apply(posts);
+                    return posts;
+                });
+    }
+
+    /**
+     * Retrieves all posts from the database.
+     *
+     * @return a Mono emitting all posts.
+     */
+    public Mono<List<Post>> getAllPosts() {
+        return postRepository.findAll().map(PostRecord::toPost).collectList();
+    }
+
+    /**
+     * Writes all posts as a JSON array into a single buffer using the pre-encoded cache.
+     * The cache is loaded from the database on first use.
+     *
+     * @param bufferFactory the factory of the response buffers.
+     * @return a Mono emitting the buffer holding the JSON array.
+     */
+    public Mono<DataBuffer> getAllPostsJson(DataBufferFactory bufferFactory) {
+        Mono<Void> load = postJsonCache.isLoaded() ? Mono.empty() : postRepository.findAll()
+                .map(PostRecord::toPost)
+                .collectList()
+                .doOnNext(posts -> postJsonCache.load(() -> posts))
+                .then();
+        return load.then(Mono.fromCallable(() -> {
+            DataBuffer buffer = bufferFactory.allocateBuffer(8192);
+            try (OutputStream out = buffer.asOutputStream()) {
+                postJsonCache.writeTo(out);
+            } catch (IOException | RuntimeException e) {
+                DataBufferUtils.release(buffer);
+                throw e;
+            }
+            return buffer;
+        }));
+    }
+
+    /**
+     * Retrieves all posts ordered by ID, keeping only the requested fields.
+     * Unless the body is requested, the body column is not selected.
+     *
+     * @param fields the names of the post fields to include, in response order.
+     * @return a Mono emitting the posts, each represented as a map of the requested fields.
+     * @throws BadRequestException if no fields are given or a field is unknown.
+     */
+    public Mono<List<Map<String, Object>>> getPostFields(Collection<String> fields) {
+        Set<String> requested = PostService.requestedFields(fields);
+        if (requested.contains("body")) {
+            return postRepository.findAll(Sort.by("id"))
+                    .map(post -> PostService.toFieldMap(requested, post.id(), post.userId(), post.title(), post.body()))
+                    .collectList();
+        }
+        return postRepository.findSummariesByOrderByIdAsc()
+                .map(post -> PostService.toFieldMap(requested, post.getId(), post.getUserId(), post.getTitle(), null))
+                .collectList();
+    }
+
+    /**
+     * Retrieves the post statistics of every author.
+     * The statistics are built from the database on first use and maintained in memory afterward.
+     *
+     * @return a Mono emitting the author statistics ordered by user ID.
+     */
+    public Mono<List<AuthorPostStatisticsDto>> getPostStatistics() {
+        Mono<Void> load = postStatistics.isLoaded() ? Mono.empty() : postRepository.findAllSizes()
+                .collectList()
+                .doOnNext(sizes -> postStatistics.load(() -> sizes))
+                .then();
+        return load.then(Mono.fromCallable(postStatistics::getAll));
+    }
+
+    /**
+     * Rebuilds the post statistics of every author from the database.
+     *
+     * @return a Mono emitting the rebuilt author statistics ordered by user ID.
+     */
+    public Mono<List<AuthorPostStatisticsDto>> rebuildPostStatistics() {
+        return postRepository.findAllSizes()
+                .collectList()
+                .map(sizes -> {
+                    postStatistics.rebuild(() -> sizes);
+                    return postStatistics.getAll();
+                });
+    }
+
+    /**
+     * Updates the posts that already exist and inserts the others, in one transaction.
+     *
+     * @param posts the posts to save.
+     * @return a Mono emitting the saved posts.
+     */
+    private Mono<List<PostRecord>> save(List<PostRecord> posts) {
+        List<Long> ids = posts.stream().map(PostRecord::id).toList();
+        return postRepository.findAllById(ids)
+                .map(PostRecord::id)
+                .collect(Collectors.toSet())
+                .flatMapMany(existing -> Flux.fromIterable(posts).concatMap(post -> existing.contains(post.id())
+                        ? entityTemplate.update(post)
+                        : entityTemplate.insert(post)))
+                .collectList()
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Reports a write of posts as a {@link PostIngestChunkEvent} to Flight Recorder once it has succeeded.
+     *
+     * @param save the Mono writing the posts.
+     * @return the recorded Mono.
+     */
+    private static Mono<List<PostRecord>> recorded(Mono<List<PostRecord>> save) {
+        return Mono.defer(() -> {
+            PostIngestChunkEvent event = new PostIngestChunkEvent();
+            event.begin();
+            return save.doOnNext(saved -> event.commit("upstream", saved.size(), () -> saved.stream()
+                    .mapToLong(post -> PostIngestChunkEvent.utf8Length(post.title())
+                            + PostIngestChunkEvent.utf8Length(post.body()))
+                    .sum()));
+        });
+    }
+
+    /**
+     * Records the time from subscription until the given Mono terminates.
+     *
+     * @param timer the timer to record into.
+     * @param mono  the Mono to time.
+     * @param <T>   the type of the emitted value.
+     * @return the timed Mono.
+     */
+    private static <T> Mono<T> timed(Timer timer, Mono<T> mono) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return mono.doOnTerminate(() -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package org.vladislavb.onemediatesttask.reactive.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.vladislavb.onemediatesttask.dto.UserProfileDto;
+import org.vladislavb.onemediatesttask.entity.Post;
+import org.vladislavb.onemediatesttask.reactive.entity.PostRecord;
+import org.vladislavb.onemediatesttask.reactive.repository.ReactivePostRepository;
+import org.vladislavb.onemediatesttask.service.UserProfileService;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link UserProfileService}, active with the "reactive" profile.
+ * The user and the page of posts are queried concurrently with {@link Mono#zip}, which cancels the other query
+ * if one fails; the shared deadline is applied with {@link Mono#timeout}.
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserProfileService {
+
+    private final ReactiveUserService userService;
+    private final ReactivePostRepository postRepository;
+    private final Duration timeout;
+
+    /**
+     * Constructs a ReactiveUserProfileService.
+     *
+     * @param userService    the service used to look up the user.
+     * @param postRepository the R2DBC repository used to query the user's posts.
+     * @param timeout        the deadline shared by both queries of a profile.
+     */
+    public ReactiveUserProfileService(ReactiveUserService userService, ReactivePostRepository postRepository,
+                                      @Value("${app.users.profile.timeout:2s}") Duration timeout) {
+        this.userService = userService;
+        this.postRepository = postRepository;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Retrieves a user together with one page of the user's posts, ordered by post ID.
+     *
+     * @param id   the user ID.
+     * @param page the zero-based index of the page of posts.
+     * @param size the maximum number of posts per page, at most 100.
+     * @return a Mono emitting the user profile, or an error if the user is not found, the page is out of range
+     * or the queries did not complete within the deadline.
+     */
+    public Mono<UserProfileDto> getUserProfile(Long id, int page, int size) {
+        return Mono.fromCallable(() -> UserProfileService.pageRequest(page, size))
+                .flatMap(pageRequest -> Mono.zip(userService.getUserById(id), posts(id, pageRequest)))
+                .timeout(timeout)
+                .map(profile -> new UserProfileDto(profile.getT1(), profile.getT2(), page, size));
+    }
+
+    /**
+     * Queries one page of the posts of a user.
+     *
+     * @param userId      the user ID.
+     * @param pageRequest the page to retrieve.
+     * @return a Mono emitting the posts on the page.
+     */
+    private Mono<List<Post>> posts(Long userId, PageRequest pageRequest) {
+        return postRepository.findByUserIdOrderByIdAsc(userId, pageRequest)
+                .map(PostRecord::toPost)
+                .collectList();
+    }
+}
@@ -0,0 +1,257 @@
+package org.vladislavb.onemediatesttask.reactive.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.vladislavb.onemediatesttask.dto.JwtAuthenticationDto;
+import org.vladislavb.onemediatesttask.dto.RefreshTokenDto;
+import org.vladislavb.onemediatesttask.dto.UserCredentialsDto;
+import org.vladislavb.onemediatesttask.dto.UserDto;
+import org.vladislavb.onemediatesttask.entity.Role;
+import org.vladislavb.onemediatesttask.jfr.SignInEvent;
+import org.vladislavb.onemediatesttask.reactive.entity.UserRecord;
+import org.vladislavb.onemediatesttask.reactive.repository.ReactiveUserRepository;
+import org.vladislavb.onemediatesttask.security.audit.AuthAuditEvent;
+import org.vladislavb.onemediatesttask.security.audit.AuthAuditLog;
+import org.vladislavb.onemediatesttask.security.jwt.JwtService;
+import org.vladislavb.onemediatesttask.security.refresh.RefreshTokenService;
+import org.vladislavb.onemediatesttask.service.impl.UserServiceImpl;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.naming.AuthenticationException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.service.impl.UserServiceImpl}, active with
+ * the "reactive" profile. Users are read and written through R2DBC.
+ *
+ * <p>Password hashing and the JDBC-backed refresh token and revocation services would block an event loop
+ * thread, so they run on the bounded elastic scheduler. Recording in the {@link AuthAuditLog} never blocks.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+    private static final int USER_BATCH_CHUNK_SIZE = 500;
+
+    private final ReactiveUserRepository userRepository;
+    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final PasswordEncoder passwordEncoder;
+    private final AuthAuditLog authAuditLog;
+    private final Timer passwordMatchTimer;
+    private final Timer passwordMismatchTimer;
+
+    /**
+     * Constructs a ReactiveUserService.
+     *
+     * @param userRepository      the reactive repository of users.
+     * @param jwtService          the service issuing and invalidating access tokens.
+     * @param refreshTokenService the service issuing and rotating refresh tokens.
+     * @param passwordEncoder     the encoder used to hash and verify passwords.
+     * @param authAuditLog        the audit log of sign-ins, refreshes and logouts.
+     * @param meterRegistry       the registry used to record the time of password verifications.
+     */
+    public ReactiveUserService(ReactiveUserRepository userRepository, JwtService jwtService,
+                               RefreshTokenService refreshTokenService, PasswordEncoder passwordEncoder,
+                               AuthAuditLog authAuditLog, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.passwordEncoder = passwordEncoder;
+        this.authAuditLog = authAuditLog;
+        this.passwordMatchTimer = UserServiceImpl.passwordMatchTimer(meterRegistry, "match");
+        this.passwordMismatchTimer = UserServiceImpl.passwordMatchTimer(meterRegistry, "mismatch");
+    }
+
+    /**
+     * Authenticates a user based on provided credentials and generates a JWT access token
+     * together with the first refresh token of a new rotation family.
+     *
+     * @param userCredentialsDto User credentials.
+     * @param clientIp           The address of the client.
+     * @return a Mono emitting the JWT authentication token, or an {@link AuthenticationException} if
+     * authentication fails.
+     */
+    public Mono<JwtAuthenticationDto> singIn(UserCredentialsDto userCredentialsDto, String clientIp) {
+        return Mono.defer(() -> {
+            SignInEvent event = new SignInEvent();
+            event.begin();
+            return userRepository.findByEmail(userCredentialsDto.getEmail())
+                    .publishOn(Schedulers.boundedElastic())
+                    .filter(user -> matches(userCredentialsDto.getPassword(), user.password()))
+                    .map(user -> {
+                        JwtAuthenticationDto tokens = authTokens(user.email(),
+                                refreshTokenService.issue(user.userId()));
+                        authAuditLog.signedIn(user.userId(), user.email(), clientIp);
+                        event.commit(user.userId(), true);
+                        return tokens;
+                    })
+                    .switchIfEmpty(Mono.error(() -> new AuthenticationException("Email or password is not correct")))
+                    .doOnError(AuthenticationException.class, e -> {
+                        authAuditLog.record(AuthAuditEvent.Type.SIGN_IN, AuthAuditEvent.Outcome.FAILURE, null,
+                                userCredentialsDto.getEmail(), clientIp);
+                        event.commit(null, false);
+                    });
+        });
+    }
+
+    /**
+     * Refreshes an authentication token using a valid refresh token.
+     * The refresh token is rotated: the presented token is used up and a new one is returned.
+     *
+     * @param refreshTokenDto DTO containing the refresh token.
+     * @param clientIp        The address of the client.
+     * @return a Mono emitting a new JWT authentication token and refresh token, or an error if the refresh token
+     * is invalid, has been revoked or has already been used.
+     */
+    public Mono<JwtAuthenticationDto> refreshToken(RefreshTokenDto refreshTokenDto, String clientIp) {
+        String refreshToken = refreshTokenDto.getRefreshToken();
+        Mono<RefreshTokenService.Rotation> rotation = refreshToken == null
+                ? Mono.error(new AuthenticationException("Invalid refresh token"))
+                : Mono.fromCallable(() -> refreshTokenService.rotate(refreshToken))
+                        .subscribeOn(Schedulers.boundedElastic());
+        return rotation
+                .doOnError(e -> authAuditLog.record(AuthAuditEvent.Type.REFRESH, AuthAuditEvent.Outcome.FAILURE,
+                        null, null, clientIp))
+                .flatMap(rotated -> userRepository.findById(rotated.userId())
+                        .switchIfEmpty(Mono.error(() -> new Exception(
+                                String.format("User with id %d not found", rotated.userId()))))
+                        .map(user -> {
+                            authAuditLog.record(AuthAuditEvent.Type.REFRESH, AuthAuditEvent.Outcome.SUCCESS,
+                                    user.userId(), user.email(), clientIp);
+                            return authTokens(user.email(), rotated.refreshToken());
+                        }));
+    }
+
+    /**
+     * Logs out a user by revoking the rotation family of their refresh token and, if given,
+     * invalidating their access token on all application nodes.
+     *
+     * @param refreshTokenDto DTO containing the refresh token.
+     * @param accessToken     the access token, or {@code null} if none was sent.
+     * @param clientIp        the address of the client.
+     * @return a Mono completing once the tokens are invalidated.
+     */
+    public Mono<Void> logout(RefreshTokenDto refreshTokenDto, String accessToken, String clientIp) {
+        return Mono.fromRunnable(() -> {
+                    String refreshToken = refreshTokenDto.getRefreshToken();
+                    if (refreshToken != null) {
+                        refreshTokenService.revoke(refreshToken);
+                    }
+                    String email = accessToken == null ? null : jwtService.resolveEmail(accessToken);
+                    if (email != null) {
+                        jwtService.invalidateToken(accessToken);
+                    }
+                    authAuditLog.record(AuthAuditEvent.Type.LOGOUT, AuthAuditEvent.Outcome.SUCCESS, null, email,
+                            clientIp);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Adds a new user to the system.
+     *
+     * @param userDto The user data transfer object.
+     * @return a Mono emitting a success message.
+     */
+    public Mono<String> addUser(UserDto userDto) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(userDto.getPassword()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(password -> userRepository.save(new UserRecord(null, userDto.getFirstName(),
+                        userDto.getLastName(), userDto.getEmail(), password, Role.USER)))
+                .thenReturn("User added");
+    }
+
+    /**
+     * Retrieves a user by their unique ID.
+     *
+     * @param id The user's ID.
+     * @return a Mono emitting the user DTO without the password, or a
+     * {@link ChangeSetPersister.NotFoundException} if the user is not found.
+     */
+    public Mono<UserDto> getUserById(Long id) {
+        return userRepository.findById(id)
+                .map(ReactiveUserService::toPublicDto)
+                .switchIfEmpty(Mono.error(ChangeSetPersister.NotFoundException::new));
+    }
+
+    /**
+     * Retrieves a user by their email address.
+     *
+     * @param email The user's email.
+     * @return a Mono emitting the user DTO without the password, or a
+     * {@link ChangeSetPersister.NotFoundException} if the user is not found.
+     */
+    public Mono<UserDto> getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .map(ReactiveUserService::toPublicDto)
+                .switchIfEmpty(Mono.error(ChangeSetPersister.NotFoundException::new));
+    }
+
+    /**
+     * Retrieves several users by their IDs. The IDs are resolved with one {@code IN} query
+     * per chunk of {@value #USER_BATCH_CHUNK_SIZE} IDs.
+     *
+     * @param ids The users' IDs.
+     * @return a Mono emitting user DTOs without passwords, keyed by user ID.
+     */
+    public Mono<Map<Long, UserDto>> getUsersByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        return Flux.range(0, (distinctIds.size() + USER_BATCH_CHUNK_SIZE - 1) / USER_BATCH_CHUNK_SIZE)
+                .concatMap(chunk -> userRepository.findAllById(distinctIds.subList(chunk * USER_BATCH_CHUNK_SIZE,
+                        Math.min((chunk + 1) * USER_BATCH_CHUNK_SIZE, distinctIds.size()))))
+                .collect(() -> new LinkedHashMap<Long, UserDto>(distinctIds.size()),
+                        (users, user) -> users.put(user.userId(), toPublicDto(user)));
+    }
+
+    /**
+     * Validates a password against its hash. The verification is timed like on the servlet stack.
+     *
+     * @param password the raw password.
+     * @param hash     the stored password hash.
+     * @return true if the password matches, false otherwise.
+     */
+    private boolean matches(String password, String hash) {
+        long start = System.nanoTime();
+        boolean matches = passwordEncoder.matches(password, hash);
+        (matches ? passwordMatchTimer : passwordMismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    /**
+     * Builds the authentication response from a new access token and the given refresh token.
+     *
+     * @param email        The email address to issue the access token for.
+     * @param refreshToken The refresh token.
+     * @return JWT authentication token.
+     */
+    private JwtAuthenticationDto authTokens(String email, String refreshToken) {
+        JwtAuthenticationDto jwtDto = new JwtAuthenticationDto();
+        jwtDto.setToken(jwtService.generateAccessToken(email));
+        jwtDto.setRefreshToken(refreshToken);
+        return jwtDto;
+    }
+
+    /**
+     * Converts a user row to a DTO without the password.
+     *
+     * @param user the user row.
+     * @return the user DTO.
+     */
+    private static UserDto toPublicDto(UserRecord user) {
+        return new UserDto(user.userId(), user.firstName(), user.lastName(), user.email());
+    }
+}
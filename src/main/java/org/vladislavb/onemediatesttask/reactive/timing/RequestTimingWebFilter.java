@@ -0,0 +1,72 @@
+package org.vladislavb.onemediatesttask.reactive.timing;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.vladislavb.onemediatesttask.timing.RequestTimings;
+import org.vladislavb.onemediatesttask.timing.SlowRequestLog;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link org.vladislavb.onemediatesttask.timing.RequestTimingFilter}.
+ * It runs ahead of all other web filters, including the security filter chain, and stores the
+ * {@link RequestTimings} of the request in the exchange attributes. The response is committed once the
+ * body has been encoded, so on this stack the service phase includes encoding a single-value body.
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingWebFilter implements WebFilter {
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+
+    /**
+     * Constructs a RequestTimingWebFilter.
+     *
+     * @param slowRequestLog the log of slow requests, which also tells whether timing is enabled.
+     */
+    public RequestTimingWebFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    /**
+     * Times the request, adds the {@code Server-Timing} header before the response is committed if the
+     * {@link SlowRequestLog} allows it, and reports the request to the slow request log once it has completed.
+     *
+     * @param exchange the current server exchange.
+     * @param chain    the rest of the filter chain.
+     * @return a Mono completing when the request has been handled.
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!slowRequestLog.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        RequestTimings timings = new RequestTimings();
+        exchange.getAttributes().put(RequestTimings.ATTRIBUTE, timings);
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            timings.startWrite();
+            if (slowRequestLog.isServerTimingHeader()) {
+                response.getHeaders().set(SERVER_TIMING, timings.toServerTiming());
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = response.getStatusCode();
+            slowRequestLog.record(exchange.getRequest().getMethod().name(), exchange.getRequest().getPath().value(),
+                    status == null ? 200 : status.value(), timings);
+        });
+    }
+}
@@ -1,16 +1,75 @@
 package org.vladislavb.onemediatesttask.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.vladislavb.onemediatesttask.dto.PostSize;
+import org.vladislavb.onemediatesttask.dto.PostSummary;
 import org.vladislavb.onemediatesttask.entity.Post;
 
+import java.util.List;
+
 /**
  * PostRepository is a Spring Data JPA repository interface for performing CRUD operations
  * on the "Post" entity. This interface extends JpaRepository, which provides built-in methods
  * for handling database operations such as save, find, delete, etc.
  *
+ * The list queries are cacheable, so their results are kept in the Hibernate query cache
+ * until the "posts" table is modified.
+ *
  * @author Vladislav Baryshev
  */
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+
+    /**
+     * Retrieves all posts, using the query cache.
+     *
+     * @return a list of all posts.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Post> findAll();
+
+    /**
+     * Retrieves all posts in the given order, using the query cache.
+     *
+     * @param sort the order of the returned posts.
+     * @return a sorted list of all posts.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Post> findAll(Sort sort);
+
+    /**
+     * Retrieves the summary projection of all posts ordered by ID.
+     * Only the columns declared in {@link PostSummary} are selected.
+     *
+     * @return a list of post summaries.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PostSummary> findSummariesByOrderByIdAsc();
+
+    /**
+     * Retrieves one page of the posts of a user ordered by ID, without counting all of the user's posts.
+     *
+     * @param userId   the user ID.
+     * @param pageable the page to retrieve.
+     * @return the posts on the page.
+     */
+    List<Post> findByUserIdOrderByIdAsc(Long userId, Pageable pageable);
+
+    /**
+     * Retrieves the author and body length of all posts, computed by the database,
+     * so the post bodies are not transferred.
+     *
+     * @return a list of post sizes.
+     */
+    @Query("select p.id as id, p.userId as userId, length(p.body) as bodyLength from Post p")
+    List<PostSize> findAllSizes();
 }
@@ -0,0 +1,59 @@
+package org.vladislavb.onemediatesttask.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.entity.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * RefreshTokenRepository is a Spring Data JPA repository for the "RefreshToken" entity.
+ * All lookups go through the primary key on the token hash, and family revocations through the family index.
+ *
+ * @author Vladislav Baryshev
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Retrieves a refresh token by its hash and locks the row until the end of the transaction,
+     * so that concurrent refreshes with the same token are serialized.
+     *
+     * @param tokenHash the hex-encoded hash of the token.
+     * @return an Optional containing the token if found, or empty if not found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RefreshToken r where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findForUpdate(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes all tokens of a rotation family.
+     *
+     * @param familyId the identifier of the family.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.familyId = :familyId")
+    int deleteFamily(@Param("familyId") UUID familyId);
+
+    /**
+     * Deletes at most {@code limit} expired tokens, so that a large backlog is purged in short transactions.
+     *
+     * @param now   the current time.
+     * @param limit the maximum number of rows to delete.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "delete from refresh_tokens where token_hash in " +
+            "(select token_hash from refresh_tokens where expires_at <= :now limit :limit)", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("limit") int limit);
+}
@@ -0,0 +1,50 @@
+package org.vladislavb.onemediatesttask.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.entity.RevokedToken;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * RevokedTokenRepository is a Spring Data JPA repository for the "RevokedToken" entity.
+ * It is used to persist revocations and to let every node load the revocations made by the others.
+ *
+ * @author Vladislav Baryshev
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Retrieves the tokens revoked at or after the given time that have not expired yet.
+     *
+     * @param since the earliest revocation time to include.
+     * @param now   the current time.
+     * @return the matching revoked tokens.
+     */
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    /**
+     * Retrieves all revoked tokens that have not expired yet.
+     *
+     * @param now the current time.
+     * @return the revoked tokens that are still relevant.
+     */
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    /**
+     * Deletes the revocations of tokens that have expired, as expired tokens are rejected anyway.
+     *
+     * @param now the current time.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
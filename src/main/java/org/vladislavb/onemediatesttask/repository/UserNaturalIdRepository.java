@@ -0,0 +1,22 @@
+package org.vladislavb.onemediatesttask.repository;
+
+import org.vladislavb.onemediatesttask.entity.User;
+
+import java.util.Optional;
+
+/**
+ * UserNaturalIdRepository is a repository fragment for loading users by their natural identifier, the email.
+ * Lookups go through the Hibernate natural-id API, so they are served from the second-level cache when possible.
+ *
+ * @author Vladislav Baryshev
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Finds a user by their email address.
+     *
+     * @param email the email address of the user.
+     * @return an Optional containing the user if found, or an empty Optional if no user is found.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,38 @@
+package org.vladislavb.onemediatesttask.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link UserNaturalIdRepository} fragment.
+ * Resolves the email through the "users-by-email" natural-id cache region and then loads the user
+ * from the "users" entity region, falling back to the database only on a cache miss.
+ *
+ * @author Vladislav Baryshev
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Finds a user by their email address using the Hibernate natural-id API.
+     * Runs in a read-only transaction, so the unwrapped session stays open for the lookup even when
+     * it is called outside a transaction, as the JWT filter does.
+     *
+     * @param email the email address of the user.
+     * @return an Optional containing the user if found, or an empty Optional if no user is found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
@@ -1,8 +1,16 @@
 package org.vladislavb.onemediatesttask.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.vladislavb.onemediatesttask.dto.UserDto;
 import org.vladislavb.onemediatesttask.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,24 +19,52 @@ import java.util.Optional;
  * database operations such as save, find, delete, etc.
  *
  * This repository also includes custom query methods for finding a user by their user ID or email.
+ * Both lookups are served from the Hibernate second-level cache when possible.
  *
  * @author Vladislav Baryshev
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     /**
      * Finds a user by their unique user ID.
+     * Delegates to {@link #findById(Object)}, which loads the user from the "users" cache region if present.
      *
      * @param id the ID of the user.
      * @return an Optional containing the user if found, or an empty Optional if no user is found.
      */
-    Optional<User> findByUserId(Long id);
+    default Optional<User> findByUserId(Long id) {
+        return findById(id);
+    }
 
     /**
-     * Finds a user by their email address.
+     * Finds all users whose IDs are in the given collection with a single {@code IN} query.
+     *
+     * @param ids the IDs of the users.
+     * @return a list of the users found, in no particular order.
+     */
+    List<User> findAllByUserIdIn(Collection<Long> ids);
+
+    /**
+     * Finds a user by their unique user ID and projects it straight into a {@link UserDto} without the password.
+     * No managed entity is created, and the result is kept in the query cache.
+     *
+     * @param id the ID of the user.
+     * @return an Optional containing the user DTO if found, or an empty Optional if no user is found.
+     */
+    @Query("select new org.vladislavb.onemediatesttask.dto.UserDto(u.userId, u.firstName, u.lastName, u.email) "
+            + "from User u where u.userId = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<UserDto> findDtoByUserId(@Param("id") Long id);
+
+    /**
+     * Finds a user by their email address and projects it straight into a {@link UserDto} without the password.
+     * No managed entity is created, and the result is kept in the query cache.
      *
      * @param email the email address of the user.
-     * @return an Optional containing the user if found, or an empty Optional if no user is found.
+     * @return an Optional containing the user DTO if found, or an empty Optional if no user is found.
      */
-    Optional<User> findByEmail(String email);
+    @Query("select new org.vladislavb.onemediatesttask.dto.UserDto(u.userId, u.firstName, u.lastName, u.email) "
+            + "from User u where u.email = :email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<UserDto> findDtoByEmail(@Param("email") String email);
 }
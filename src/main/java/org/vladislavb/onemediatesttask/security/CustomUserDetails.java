@@ -2,7 +2,9 @@ package org.vladislavb.onemediatesttask.security;
 
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.vladislavb.onemediatesttask.entity.Role;
 import org.vladislavb.onemediatesttask.entity.User;
 
 import java.util.Collection;
@@ -16,15 +18,18 @@ import java.util.List;
  * @author Vladislav Baryshev
  */
 public record CustomUserDetails(User user) implements UserDetails {
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_" + Role.ADMIN.name()));
 
     /**
-     * Returns a list of authorities granted to the user. In this implementation, no authorities are assigned.
+     * Returns a list of authorities granted to the user. Administrators are granted "ROLE_ADMIN",
+     * other users have no authorities.
      *
-     * @return an empty list of granted authorities.
+     * @return the granted authorities.
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of();
+        return user.getRole() == Role.ADMIN ? ADMIN_AUTHORITIES : List.of();
     }
 
     /**
@@ -6,6 +6,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.vladislavb.onemediatesttask.repository.UserRepository;
+import org.vladislavb.onemediatesttask.timing.RequestTimings;
 
 /**
  * CustomUserServiceImpl is an implementation of the Spring Security {@link UserDetailsService} interface.
@@ -22,6 +23,7 @@ public class CustomUserServiceImpl implements UserDetailsService {
     /**
      * Loads the user details by username (email) from the database.
      * If the user is not found, a {@link UsernameNotFoundException} is thrown.
+     * The time is recorded as the user phase of the current request's {@link RequestTimings}.
      *
      * @param username the email address of the user to load.
      * @return a {@link CustomUserDetails} object representing the user.
@@ -29,7 +31,12 @@ public class CustomUserServiceImpl implements UserDetailsService {
      */
     @Override
     public CustomUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username).map(CustomUserDetails::new)
-                .orElseThrow(() -> new UsernameNotFoundException(username));
+        long start = System.nanoTime();
+        try {
+            return userRepository.findByEmail(username).map(CustomUserDetails::new)
+                    .orElseThrow(() -> new UsernameNotFoundException(username));
+        } finally {
+            RequestTimings.record(RequestTimings.current(), RequestTimings.Phase.USER, start);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package org.vladislavb.onemediatesttask.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.vladislavb.onemediatesttask.jfr.PasswordVerificationEvent;
+
+/**
+ * PasswordEncoderConfig defines the password encoder used by both the servlet and the reactive stack.
+ *
+ * @author Vladislav Baryshev
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    /**
+     * Provides a {@link PasswordEncoder} bean that uses BCrypt hashing algorithm for password encoding.
+     * Every verification is reported as a {@link PasswordVerificationEvent} to Flight Recorder.
+     *
+     * @return a {@link BCryptPasswordEncoder} with strength 4.
+     */
+    @Bean
+    public PasswordEncoder getPasswordEncoder() {
+        return new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                PasswordVerificationEvent event = new PasswordVerificationEvent();
+                event.begin();
+                boolean matched = super.matches(rawPassword, encodedPassword);
+                event.commit(matched);
+                return matched;
+            }
+        };
+    }
+}
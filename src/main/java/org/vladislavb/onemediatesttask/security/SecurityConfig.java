@@ -3,45 +3,56 @@ package org.vladislavb.onemediatesttask.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.vladislavb.onemediatesttask.entity.Role;
+import org.vladislavb.onemediatesttask.security.concurrency.ConcurrencyLimitFilter;
 import org.vladislavb.onemediatesttask.security.jwt.JwtFilter;
+import org.vladislavb.onemediatesttask.security.ratelimit.RateLimitFilter;
 
 /**
  * SecurityConfig is a configuration class for Spring Security.
- * It configures the security settings for the application, including HTTP security, password encoding,
- * and JWT authentication filters.
+ * It configures the security settings for the servlet stack, including HTTP security
+ * and JWT authentication filters. The password encoder is shared with the reactive stack and is defined
+ * in {@link PasswordEncoderConfig}.
  *
  * This configuration disables HTTP basic authentication, CSRF protection, and sets the session management policy
  * to stateless, meaning the application does not store session information.
- * It also adds a JWT filter before the {@link UsernamePasswordAuthenticationFilter} to validate JWT tokens for requests.
+ * It also adds a JWT filter before the {@link UsernamePasswordAuthenticationFilter} to validate JWT tokens for requests,
+ * preceded by the {@link ConcurrencyLimitFilter} shedding load and followed by the {@link RateLimitFilter} enforcing
+ * the quotas of authenticated subjects.
  *
  * @author Vladislav Baryshev
  */
 @RequiredArgsConstructor
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final JwtFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Configures the HTTP security for the application.
      *
      * This method disables HTTP basic authentication, CSRF protection, and sets up URL-based access rules.
-     * It allows unauthenticated access to the user registration and authentication endpoints and requires authentication
-     * for all other endpoints.
+     * It allows unauthenticated access to the user registration and authentication endpoints, the API documentation
+     * and the health, info and Prometheus actuator endpoints, restricts the administration endpoints and the post
+     * snapshot endpoints, which replace the posts of every user, to users with the ADMIN role, and requires authentication for all other endpoints.
      *
      * The session creation policy is set to stateless to ensure that no session is created or used.
      * The method also adds the {@link JwtFilter} before the {@link UsernamePasswordAuthenticationFilter} to validate
-     * JWT tokens in incoming requests.
+     * JWT tokens in incoming requests, and the {@link RateLimitFilter} right after it, so that over-quota requests
+     * are rejected before they reach a controller. The {@link ConcurrencyLimitFilter} runs ahead of both, so that
+     * requests beyond the adaptive concurrency limit are rejected before any work is done for them.
      *
      * @param http the {@link HttpSecurity} object used to configure the security settings.
      * @return a configured {@link SecurityFilterChain} object.
@@ -57,22 +68,17 @@ public class SecurityConfig {
                                         "/user/registration",
                                         "/auth/**",
                                         "/swagger-ui/**",
-                                        "/v3/api-docs/**"
+                                        "/v3/api-docs/**",
+                                        "/actuator/health/**",
+                                        "/actuator/info",
+                                        "/actuator/prometheus"
                                 ).permitAll()
-
+                        .requestMatchers("/admin/**", "/api/posts/snapshot/**").hasRole(Role.ADMIN.name())
                         .requestMatchers("/**").authenticated())
                 .sessionManagement(session-> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JwtFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtFilter.class);
         return http.build();
     }
-
-    /**
-     * Provides a {@link PasswordEncoder} bean that uses BCrypt hashing algorithm for password encoding.
-     *
-     * @return a {@link BCryptPasswordEncoder} with strength 4.
-     */
-    @Bean
-    public PasswordEncoder getPasswordEncoder() {
-        return new BCryptPasswordEncoder(4);
-    }
 }
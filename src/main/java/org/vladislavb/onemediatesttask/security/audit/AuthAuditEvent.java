@@ -0,0 +1,63 @@
+package org.vladislavb.onemediatesttask.security.audit;
+
+import java.time.Instant;
+
+/**
+ * One entry of the authentication audit log.
+ * The email address is whatever the client sent, so it and the client address are cut to the size of their columns
+ * in {@code auth_audit_log}.
+ *
+ * @param type       what the client did.
+ * @param outcome    whether it succeeded.
+ * @param userId     the ID of the user, or null if unknown.
+ * @param email      the email address of the user, or null if unknown.
+ * @param clientIp   the address of the client, or null if unknown.
+ * @param occurredAt when it happened.
+ * @author Vladislav Baryshev
+ */
+public record AuthAuditEvent(Type type, Outcome outcome, Long userId, String email, String clientIp,
+                             Instant occurredAt) {
+
+    /**
+     * The size of the email column.
+     */
+    public static final int EMAIL_LENGTH = 255;
+
+    /**
+     * The size of the client_ip column, enough for any IPv6 address.
+     */
+    public static final int CLIENT_IP_LENGTH = 45;
+
+    /**
+     * Constructs an AuthAuditEvent, cutting the email and client addresses to the size of their columns.
+     */
+    public AuthAuditEvent {
+        email = truncate(email, EMAIL_LENGTH);
+        clientIp = truncate(clientIp, CLIENT_IP_LENGTH);
+    }
+
+    /**
+     * Cuts a value to the given length.
+     *
+     * @param value     the value, or null.
+     * @param maxLength the maximum length.
+     * @return the value, or its first maxLength characters.
+     */
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    /**
+     * The audited authentication operations.
+     */
+    public enum Type {
+        SIGN_IN, REFRESH, LOGOUT
+    }
+
+    /**
+     * The outcome of an audited operation.
+     */
+    public enum Outcome {
+        SUCCESS, FAILURE
+    }
+}
@@ -0,0 +1,314 @@
+package org.vladislavb.onemediatesttask.security.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AuthAuditLog records sign-ins, refreshes and logouts without adding a database write to the request.
+ *
+ * <p>Requests only append their event to a bounded lock-free queue and return. A single writer thread drains the
+ * queue into {@code auth_audit_log} with JDBC batch inserts, as soon as a batch is full or at the latest after the
+ * flush interval. When the queue is full, because the database is slow or down, new events are dropped and counted
+ * instead of blocking requests or growing the heap. A batch the database rejects because of one invalid row is
+ * written again row by row, so only that row is lost. A batch that fails for any other reason, e.g. because the
+ * database is down, is dropped and counted.</p>
+ *
+ * <p>Successful sign-ins also update {@code users.last_login_at}. Those updates are coalesced per user in a map,
+ * so a user has at most one pending write however often they sign in between two flushes.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+public class AuthAuditLog implements SmartLifecycle {
+
+    private static final Logger LOGGER = LogManager.getLogger(AuthAuditLog.class);
+    private static final String INSERT_EVENT = "INSERT INTO auth_audit_log "
+            + "(event, outcome, user_id, email, client_ip, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_LAST_LOGIN = "UPDATE users SET last_login_at = ? "
+            + "WHERE user_id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final ConcurrentLinkedQueue<AuthAuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<Long, Instant> pendingLogins = new ConcurrentHashMap<>();
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    /**
+     * Constructs an AuthAuditLog.
+     *
+     * @param dataSource         the data source of the primary database.
+     * @param transactionManager the transaction manager each flush runs in.
+     * @param capacity           the maximum number of events waiting to be written.
+     * @param batchSize          the number of events that triggers a flush and the maximum per batch.
+     * @param flushInterval      the longest time an event waits to be written.
+     * @param meterRegistry      the registry used to record the written and dropped events.
+     */
+    public AuthAuditLog(DataSource dataSource, PlatformTransactionManager transactionManager,
+                        @Value("${app.security.audit.capacity:10000}") int capacity,
+                        @Value("${app.security.audit.batch-size:500}") int batchSize,
+                        @Value("${app.security.audit.flush-interval:1s}") Duration flushInterval,
+                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.written = auditCounter(meterRegistry, "written");
+        this.dropped = auditCounter(meterRegistry, "dropped");
+        this.failed = auditCounter(meterRegistry, "failed");
+        Gauge.builder("onemedia.auth.audit.queue", queued, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a successful sign-in and schedules the update of the user's last login time.
+     *
+     * @param userId   the ID of the user.
+     * @param email    the email address of the user.
+     * @param clientIp the address of the client.
+     */
+    public void signedIn(Long userId, String email, String clientIp) {
+        Instant now = Instant.now();
+        pendingLogins.merge(userId, now, (pending, latest) -> latest.isAfter(pending) ? latest : pending);
+        enqueue(new AuthAuditEvent(AuthAuditEvent.Type.SIGN_IN, AuthAuditEvent.Outcome.SUCCESS, userId, email,
+                clientIp, now));
+    }
+
+    /**
+     * Records an authentication operation.
+     *
+     * @param type     what the client did.
+     * @param outcome  whether it succeeded.
+     * @param userId   the ID of the user, or null if unknown.
+     * @param email    the email address of the user, or null if unknown.
+     * @param clientIp the address of the client.
+     */
+    public void record(AuthAuditEvent.Type type, AuthAuditEvent.Outcome outcome, Long userId, String email,
+                       String clientIp) {
+        enqueue(new AuthAuditEvent(type, outcome, userId, email, clientIp, Instant.now()));
+    }
+
+    /**
+     * Appends an event to the queue, or drops it if the queue is full.
+     * Wakes the writer once a batch is complete.
+     *
+     * @param event the event.
+     */
+    private void enqueue(AuthAuditEvent event) {
+        int size = queued.incrementAndGet();
+        if (size > capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(event);
+        if (size == batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("auth-audit-writer").daemon().start(this::drain);
+    }
+
+    /**
+     * Wakes the writer and waits until it has written what is left.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if the writer thread is running.
+     *
+     * @return true between start and stop.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts the writer before and stops it after the web server, so no request records events once it is gone.
+     * Lifecycle beans stop before the data source is closed.
+     *
+     * @return a phase below the phases of the web server.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * The loop of the writer thread: waits until a batch is complete or the flush interval has passed,
+     * then writes everything that is pending. After stop, writes what is left and exits.
+     */
+    private void drain() {
+        while (running) {
+            if (queued.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flush();
+        }
+        flush();
+    }
+
+    /**
+     * Writes all pending events, batch by batch, and the pending last login times with the last batch.
+     */
+    private void flush() {
+        do {
+            List<AuthAuditEvent> events = new ArrayList<>(Math.min(queued.get(), batchSize));
+            AuthAuditEvent event;
+            while (events.size() < batchSize && (event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                events.add(event);
+            }
+            Map<Long, Instant> logins = queued.get() < batchSize ? Map.copyOf(pendingLogins) : Map.of();
+            if (events.isEmpty() && logins.isEmpty()) {
+                return;
+            }
+            try {
+                int count = write(events, logins);
+                written.increment(count);
+                failed.increment(events.size() - count);
+            } catch (RuntimeException e) {
+                failed.increment(events.size());
+                LOGGER.warn("Dropped {} audit events that could not be written", events.size(), e);
+            }
+            logins.forEach(pendingLogins::remove);
+        } while (queued.get() >= batchSize);
+    }
+
+    /**
+     * Inserts the events and updates the last login times in two JDBC batches of one transaction.
+     * If one of the events violates a constraint, the whole batch is rolled back, so the last login times are
+     * updated on their own and each event is inserted in its own transaction instead.
+     *
+     * @param events the events to insert.
+     * @param logins the latest sign-in time of each user to update.
+     * @return the number of events inserted.
+     */
+    private int write(List<AuthAuditEvent> events, Map<Long, Instant> logins) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insert(events);
+                updateLastLogins(logins);
+            });
+            return events.size();
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.warn("Audit batch of {} events was rejected, writing the events one by one", events.size(), e);
+        }
+        transactionTemplate.executeWithoutResult(status -> updateLastLogins(logins));
+        int count = 0;
+        for (AuthAuditEvent event : events) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(event)));
+                count++;
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.warn("Dropped {} {} audit event of {} that could not be written", event.type(), event.outcome(),
+                        event.occurredAt(), e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Inserts the events in one JDBC batch.
+     *
+     * @param events the events to insert.
+     */
+    private void insert(List<AuthAuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.type().name());
+            statement.setString(2, event.outcome().name());
+            statement.setObject(3, event.userId());
+            statement.setString(4, event.email());
+            statement.setString(5, event.clientIp());
+            statement.setTimestamp(6, Timestamp.from(event.occurredAt()));
+        });
+    }
+
+    /**
+     * Updates the last login times in one JDBC batch.
+     *
+     * @param logins the latest sign-in time of each user to update.
+     */
+    private void updateLastLogins(Map<Long, Instant> logins) {
+        if (logins.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Instant>> entries = List.copyOf(logins.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, entries, entries.size(), (statement, login) -> {
+            Timestamp at = Timestamp.from(login.getValue());
+            statement.setTimestamp(1, at);
+            statement.setLong(2, login.getKey());
+            statement.setTimestamp(3, at);
+        });
+    }
+
+    /**
+     * Creates the counter of audit events with the given outcome.
+     *
+     * @param meterRegistry the registry to register the counter in.
+     * @param result        what happened to the events.
+     * @return the registered counter.
+     */
+    private static Counter auditCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("onemedia.auth.audit.events")
+                .description("Authentication audit events by what happened to them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
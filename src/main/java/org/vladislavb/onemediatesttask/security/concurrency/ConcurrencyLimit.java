@@ -0,0 +1,202 @@
+package org.vladislavb.onemediatesttask.security.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConcurrencyLimit caps the number of requests of one route group that are processed at the same time,
+ * and adapts the cap to the latency it observes.
+ *
+ * <p>The limit follows the gradient algorithm: the average latency of a short window is compared with a slowly
+ * moving long-term average. While the short-term latency stays within {@code tolerance} times the long-term one,
+ * the limit grows by its square root, which lets a small queue build up to probe for more capacity. When requests
+ * get slower, e.g. because they wait for a database connection, the limit shrinks in proportion, by at most half
+ * per window, so excess requests are rejected right away instead of piling up in front of the pool. Windows in
+ * which the group used less than half of its limit carry no information about capacity and leave it unchanged.</p>
+ *
+ * <p>Acquiring and releasing a slot is a compare-and-set on the in-flight counter; only the completion of a
+ * request takes a short lock to add its latency to the current window.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+public final class ConcurrencyLimit {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final int LONG_RTT_WINDOWS = 100;
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long retryAfterSeconds;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter rejected;
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    /**
+     * Constructs a ConcurrencyLimit and registers its metrics.
+     *
+     * @param name          the name of the route group.
+     * @param initialLimit  the limit before any latency has been observed.
+     * @param minLimit      the lowest the limit may shrink to.
+     * @param maxLimit      the highest the limit may grow to.
+     * @param tolerance     the factor by which the short-term latency may exceed the long-term one before
+     *                      the limit shrinks.
+     * @param retryAfter    the delay suggested to rejected clients.
+     * @param meterRegistry the registry used to expose the limit, the requests in flight and the rejections.
+     */
+    ConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+                     Duration retryAfter, MeterRegistry meterRegistry) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits of group " + name
+                    + " must satisfy 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Concurrency limit tolerance of group " + name
+                    + " must be at least 1");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+        Gauge.builder("onemedia.concurrency.limit", this, ConcurrencyLimit::getLimit)
+                .description("Current adaptive limit of concurrently processed requests")
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("onemedia.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Requests currently being processed")
+                .tag("group", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("onemedia.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("group", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the name of the route group.
+     *
+     * @return the group name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of requests that may be processed at the same time.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the delay suggested to rejected clients.
+     *
+     * @return the value of the {@code Retry-After} header, in seconds.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Takes a slot for a request if the limit has not been reached.
+     * A taken slot must be given back with {@link #release(long, int)} or {@link #releaseWithoutSample()}.
+     *
+     * @return the number of requests in flight including this one, or 0 if the request is rejected.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Gives back the slot of a completed request and adds its latency to the current window.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the request was admitted.
+     * @param inflight   the value returned by {@link #tryAcquire()} for the request.
+     */
+    public void release(long startNanos, int inflight) {
+        long now = System.nanoTime();
+        this.inflight.decrementAndGet();
+        onSample(now, now - startNanos, inflight);
+    }
+
+    /**
+     * Gives back the slot of a request whose latency says nothing about the capacity, e.g. a cancelled one.
+     */
+    public void releaseWithoutSample() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * Adds a latency to the current window and updates the limit once the window is complete.
+     *
+     * @param now      the current {@link System#nanoTime()}.
+     * @param rtt      the latency of the request in nanoseconds.
+     * @param inflight the number of requests that were in flight when the request was admitted.
+     */
+    private synchronized void onSample(long now, long rtt, int inflight) {
+        windowRttSum += rtt;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflight);
+        if (now - windowStart < WINDOW_NANOS || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = Math.max(1, (double) windowRttSum / windowSamples);
+        int used = windowMaxInflight;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        update(shortRtt, used);
+    }
+
+    /**
+     * Moves the long-term latency towards the latency of the completed window and derives the new limit.
+     *
+     * @param shortRtt the average latency of the window in nanoseconds.
+     * @param used     the highest number of requests in flight during the window.
+     */
+    private void update(double shortRtt, int used) {
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_RTT_WINDOWS;
+        // After an overload the long-term latency lags far behind; pull it down faster once requests are quick again.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (used < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,75 @@
+package org.vladislavb.onemediatesttask.security.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * ConcurrencyLimitFilter admits requests only while their route group is below its adaptive
+ * {@link ConcurrencyLimit}. It runs ahead of {@link org.vladislavb.onemediatesttask.security.jwt.JwtFilter},
+ * so excess requests are rejected with 503 and a {@code Retry-After} hint before a token is validated or a
+ * database connection is requested.
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+@Profile("!reactive")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String REJECTED_MESSAGE = "Service is overloaded, retry later";
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Constructs a ConcurrencyLimitFilter.
+     *
+     * @param concurrencyLimiter the limits to enforce.
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Takes a slot of the request's route group, processes the request and records its latency,
+     * or answers with 503 if the group is at its limit.
+     *
+     * @param request the HTTP request object.
+     * @param response the HTTP response object.
+     * @param filterChain the filter chain to pass the request and response to the next filter.
+     * @throws ServletException if a servlet error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ConcurrencyLimit limit = concurrencyLimiter.limitOf(request.getRequestURI());
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int inflight = limit.tryAcquire();
+        if (inflight == 0) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(limit.getRetryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(REJECTED_MESSAGE);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(start, inflight);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.vladislavb.onemediatesttask.security.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * ConcurrencyLimiter holds the adaptive {@link ConcurrencyLimit}s of the route groups.
+ * Expensive routes, which hash passwords, synchronize or rescan posts or write users in bulk, get their own small
+ * limit so that a burst of them cannot take all database connections from the cheap reads, which share a larger one.
+ * Actuator endpoints are never limited, so health checks keep answering while the application sheds load.
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class ConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final ConcurrencyLimit cheap;
+    private final ConcurrencyLimit expensive;
+
+    /**
+     * Constructs a ConcurrencyLimiter.
+     *
+     * @param enabled               whether the limits are enforced at all.
+     * @param cheapInitialLimit     the initial limit of cheap routes.
+     * @param cheapMinLimit         the lowest limit of cheap routes.
+     * @param cheapMaxLimit         the highest limit of cheap routes.
+     * @param expensiveInitialLimit the initial limit of expensive routes.
+     * @param expensiveMinLimit     the lowest limit of expensive routes.
+     * @param expensiveMaxLimit     the highest limit of expensive routes.
+     * @param tolerance             the factor by which latency may grow before the limits shrink.
+     * @param retryAfter            the delay suggested to rejected clients.
+     * @param meterRegistry         the registry used to expose the limits.
+     */
+    public ConcurrencyLimiter(@Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+                              @Value("${app.concurrency-limit.cheap.initial-limit:50}") int cheapInitialLimit,
+                              @Value("${app.concurrency-limit.cheap.min-limit:10}") int cheapMinLimit,
+                              @Value("${app.concurrency-limit.cheap.max-limit:200}") int cheapMaxLimit,
+                              @Value("${app.concurrency-limit.expensive.initial-limit:10}") int expensiveInitialLimit,
+                              @Value("${app.concurrency-limit.expensive.min-limit:2}") int expensiveMinLimit,
+                              @Value("${app.concurrency-limit.expensive.max-limit:40}") int expensiveMaxLimit,
+                              @Value("${app.concurrency-limit.tolerance:1.5}") double tolerance,
+                              @Value("${app.concurrency-limit.retry-after:1s}") Duration retryAfter,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cheap = new ConcurrencyLimit("cheap", cheapInitialLimit, cheapMinLimit, cheapMaxLimit, tolerance,
+                retryAfter, meterRegistry);
+        this.expensive = new ConcurrencyLimit("expensive", expensiveInitialLimit, expensiveMinLimit,
+                expensiveMaxLimit, tolerance, retryAfter, meterRegistry);
+    }
+
+    /**
+     * Selects the limit that applies to a request path.
+     *
+     * @param path the request path.
+     * @return the limit, or null if the path is not limited or the limits are disabled.
+     */
+    public ConcurrencyLimit limitOf(String path) {
+        if (!enabled || path.startsWith("/actuator/")) {
+            return null;
+        }
+        if (path.startsWith("/auth/") || path.equals("/user/registration") || path.equals("/user/batch")
+                || path.equals("/api/posts/fetch") || path.equals("/api/posts/stats/rebuild")
+                || path.startsWith("/api/posts/snapshot")) {
+            return expensive;
+        }
+        return cheap;
+    }
+}
@@ -0,0 +1,20 @@
+package org.vladislavb.onemediatesttask.security.jwt;
+
+/**
+ * The kind of access tokens {@link JwtService} issues, selected with {@code app.security.access-token.mode}.
+ *
+ * @author Vladislav Baryshev
+ */
+public enum AccessTokenMode {
+
+    /**
+     * Signed JWTs that any node can validate on its own; revocations are shared through the database.
+     */
+    JWT,
+
+    /**
+     * Short random reference tokens resolved through an in-memory store, so they are only known to the node
+     * that issued them. Meant for first-party clients of a single node or behind sticky sessions.
+     */
+    OPAQUE
+}
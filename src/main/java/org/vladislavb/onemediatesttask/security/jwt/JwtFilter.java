@@ -5,7 +5,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,26 +16,47 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.vladislavb.onemediatesttask.security.CustomUserDetails;
 import org.vladislavb.onemediatesttask.security.CustomUserServiceImpl;
+import org.vladislavb.onemediatesttask.timing.RequestTimings;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JwtFilter is a custom filter that intercepts incoming HTTP requests to validate JWT tokens.
- * If a valid token is found in the Authorization header, the user information is extracted and
- * set in the SecurityContext, allowing for authentication in the Spring Security framework.
+ * If a valid token that has not been invalidated is found in the Authorization header, the user information
+ * is extracted and set in the SecurityContext, allowing for authentication in the Spring Security framework.
  * This filter extends OncePerRequestFilter, meaning it is executed only once per request.
+ * The time the filter itself adds to a request, excluding the rest of the chain, is recorded as a timer,
+ * and the token part of it also as the token phase of the request's {@link RequestTimings}.
  *
  * @author Vladislav Baryshev
  */
 @Component
-@RequiredArgsConstructor
+@Profile("!reactive")
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final CustomUserServiceImpl customUserService;
+    private final Timer filterTimer;
+
+    /**
+     * Constructs a JwtFilter with the services used to validate tokens and load users.
+     *
+     * @param jwtService        the service used to validate tokens and extract the email.
+     * @param customUserService the service used to load the authenticated user.
+     * @param meterRegistry     the registry used to record the filter overhead.
+     */
+    public JwtFilter(JwtService jwtService, CustomUserServiceImpl customUserService, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.customUserService = customUserService;
+        this.filterTimer = Timer.builder("onemedia.jwt.filter")
+                .description("Time spent authenticating a request in the JWT filter")
+                .register(meterRegistry);
+    }
 
     /**
      * This method is called during the request processing. It retrieves the JWT token from the request,
-     * validates it, and if valid, sets the user details into the Spring Security context for the authenticated user.
+     * validates it and checks that it has not been invalidated, and if so, sets the user details into
+     * the Spring Security context for the authenticated user.
      *
      * @param request the HTTP request object.
      * @param response the HTTP response object.
@@ -45,22 +68,26 @@ public class JwtFilter extends OncePerRequestFilter {
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
         String token = getTokenFromRequest(request);
-        if (token != null && jwtService.validateJwtToken(token)) {
-            setCustomUserDetailsToSecurityContextHolder(token);
+        String email = token == null ? null : jwtService.resolveEmail(token);
+        boolean valid = email != null && !jwtService.isTokenInvalidated(token);
+        RequestTimings.record(RequestTimings.current(), RequestTimings.Phase.TOKEN, start);
+        if (valid) {
+            setCustomUserDetailsToSecurityContextHolder(email);
         }
+        filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         filterChain.doFilter(request, response);
 
     }
 
     /**
-     * Sets the custom user details into the SecurityContextHolder based on the provided JWT token.
+     * Sets the custom user details into the SecurityContextHolder based on the email of the validated token.
      * This ensures that the authenticated user is available for Spring Security.
      *
-     * @param token the JWT token containing the user's email.
+     * @param email the email address of the token's user.
      */
-    private void setCustomUserDetailsToSecurityContextHolder(String token) {
-        String email = jwtService.getEmailFromToken(token);
+    private void setCustomUserDetailsToSecurityContextHolder(String email) {
         CustomUserDetails customUserDetails = customUserService.loadUserByUsername(email);
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(customUserDetails,
                 null, customUserDetails.getAuthorities());
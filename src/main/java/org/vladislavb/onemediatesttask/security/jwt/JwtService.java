@@ -4,23 +4,33 @@ package org.vladislavb.onemediatesttask.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.vladislavb.onemediatesttask.dto.JwtAuthenticationDto;
+import org.vladislavb.onemediatesttask.jfr.TokenValidationEvent;
+import org.vladislavb.onemediatesttask.security.revocation.TokenRevocationService;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
- * JwtService is a service responsible for generating, validating, and refreshing JWT tokens.
- * It provides methods to create both authentication and refresh tokens, as well as to invalidate tokens.
+ * JwtService is a service responsible for generating and validating JWT access tokens.
+ * It provides methods to create access tokens, as well as to invalidate them.
  * The service uses the JJWT library to generate and validate the tokens.
+ * Refresh tokens are opaque and managed by the {@link org.vladislavb.onemediatesttask.security.refresh.RefreshTokenService}.
+ * Signing and validation are timed. Invalidated tokens are tracked by the {@link TokenRevocationService},
+ * so an invalidation applies on every application node. The signing key and the parser are built once.
+ *
+ * <p>With {@code app.security.access-token.mode=opaque}, access tokens are short random strings instead,
+ * kept in an {@link OpaqueTokenStore} of this node: validating one is a single map lookup and invalidating one
+ * removes it, without involving the {@link TokenRevocationService}.</p>
  *
  * @author Vladislav Baryshev
  */
@@ -28,138 +38,243 @@ import java.util.Set;
 public class JwtService {
 
     private static final Logger LOGGER = LogManager.getLogger(JwtService.class);
+    private static final Duration ACCESS_TOKEN_TIME_TO_LIVE = Duration.ofMinutes(1);
     @Value("8074658237c236e39e96e909ac1abb25a3e1773b100096ad6877c439cd452c17")
     private String jwtSecret;
-    private final Set<String> invalidatedTokens = new HashSet<>();
+    private final TokenRevocationService tokenRevocationService;
+    private final OpaqueTokenStore opaqueTokenStore;
+    private volatile JwtParser jwtParser;
+    private volatile SecretKey signingKey;
+    private final Timer accessTokenSignTimer;
+    private final Timer validTokenTimer;
+    private final Timer expiredTokenTimer;
+    private final Timer unsupportedTokenTimer;
+    private final Timer malformedTokenTimer;
+    private final Timer rejectedTokenTimer;
+    private final Timer invalidTokenTimer;
 
     /**
-     * Generates a pair of authentication and refresh tokens for the given email address.
+     * Constructs a JwtService and registers its meters.
      *
-     * @param email the email address to associate with the generated tokens.
-     * @return a JwtAuthenticationDto containing the generated authentication and refresh tokens.
+     * @param tokenRevocationService the service tracking invalidated tokens across all nodes.
+     * @param mode                   the kind of access tokens to issue.
+     * @param maxOpaqueTokens        the maximum number of valid opaque tokens kept in memory.
+     * @param meterRegistry          the registry used to record signing and validation metrics.
      */
-    public JwtAuthenticationDto generateAuthToken(String email) {
-        JwtAuthenticationDto jwtDto = new JwtAuthenticationDto();
-        jwtDto.setToken(generateJwtToken(email));
-        jwtDto.setRefreshToken(generateRefreshToken(email));
-        return jwtDto;
+    public JwtService(TokenRevocationService tokenRevocationService,
+                      @Value("${app.security.access-token.mode:jwt}") AccessTokenMode mode,
+                      @Value("${app.security.access-token.opaque.max-tokens:1000000}") long maxOpaqueTokens,
+                      MeterRegistry meterRegistry) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.opaqueTokenStore = mode == AccessTokenMode.OPAQUE
+                ? new OpaqueTokenStore(ACCESS_TOKEN_TIME_TO_LIVE, maxOpaqueTokens, meterRegistry)
+                : null;
+        this.accessTokenSignTimer = signTimer(meterRegistry, mode == AccessTokenMode.OPAQUE ? "opaque" : "access");
+        this.validTokenTimer = validationTimer(meterRegistry, "valid");
+        this.expiredTokenTimer = validationTimer(meterRegistry, "expired");
+        this.unsupportedTokenTimer = validationTimer(meterRegistry, "unsupported");
+        this.malformedTokenTimer = validationTimer(meterRegistry, "malformed");
+        this.rejectedTokenTimer = validationTimer(meterRegistry, "rejected");
+        this.invalidTokenTimer = validationTimer(meterRegistry, "invalid");
+    }
+
+    /**
+     * Generates an access token for the given email address, a JWT or an opaque token depending on the mode.
+     * The token will expire in 1 minute.
+     *
+     * @param email the email address to associate with the token.
+     * @return the generated access token.
+     */
+    public String generateAccessToken(String email) {
+        if (opaqueTokenStore != null) {
+            return accessTokenSignTimer.record(() -> opaqueTokenStore.issue(email));
+        }
+        Date date = Date.from(LocalDateTime.now().plus(ACCESS_TOKEN_TIME_TO_LIVE)
+                .atZone(ZoneId.systemDefault()).toInstant());
+        return accessTokenSignTimer.record(() -> Jwts.builder()
+                .subject(email)
+                .expiration(date)
+                .signWith(getSingInKey())
+                .compact());
     }
 
     /**
-     * Invalidates the specified token by adding it to the list of invalidated tokens.
+     * Invalidates the specified token on all application nodes until it expires.
+     * The token must be valid. Opaque tokens are simply removed from the store.
      *
-     * @param token the JWT token to invalidate.
+     * @param token the token to invalidate.
      */
     public void invalidateToken(String token) {
-        invalidatedTokens.add(token);
+        if (opaqueTokenStore != null) {
+            opaqueTokenStore.remove(token);
+            return;
+        }
+        Date expiration = getParser()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getExpiration();
+        tokenRevocationService.revoke(token, expiration.toInstant());
     }
 
     /**
-     * Checks if the provided token has been invalidated.
+     * Checks if the provided token has been invalidated on any application node.
+     * Invalidated opaque tokens are no longer in the store, so they never get this far and this is always false.
      *
-     * @param token the JWT token to check.
+     * @param token the token to check.
      * @return true if the token is invalidated, false otherwise.
      */
     public boolean isTokenInvalidated(String token) {
-        return invalidatedTokens.contains(token);
+        return opaqueTokenStore == null && tokenRevocationService.isRevoked(token);
     }
 
     /**
-     * Refreshes the base authentication token using the provided refresh token and email address.
+     * Checks if the provided token has been invalidated using only what this node knows, without blocking.
      *
-     * @param email the email address associated with the token.
-     * @param refreshToken the refresh token used to generate a new authentication token.
-     * @return a JwtAuthenticationDto containing the new authentication token and the provided refresh token.
+     * @param token the token to check.
+     * @return true or false if the answer is known locally, {@code null} if {@link #isTokenInvalidated}
+     * has to ask the database.
      */
-    public JwtAuthenticationDto refreshBaseToken(String email, String refreshToken) {
-        JwtAuthenticationDto jwtDto = new JwtAuthenticationDto();
-        jwtDto.setToken(generateJwtToken(email));
-        jwtDto.setRefreshToken(refreshToken);
-        return jwtDto;
+    public Boolean isTokenInvalidatedLocally(String token) {
+        return opaqueTokenStore == null ? tokenRevocationService.isRevokedLocally(token) : Boolean.FALSE;
     }
 
     /**
-     * Extracts the email address from the given JWT token.
+     * Extracts the email address from the given token.
      *
-     * @param token the JWT token to extract the email from.
-     * @return the email address encoded in the token.
+     * @param token the token to extract the email from.
+     * @return the email address of the token, or null for an unknown opaque token.
      */
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSingInKey())
-                .build()
+        if (opaqueTokenStore != null) {
+            return opaqueTokenStore.resolve(token);
+        }
+        Claims claims = getParser()
                 .parseSignedClaims(token)
                 .getPayload();
         return claims.getSubject();
     }
 
     /**
-     * Validates the provided JWT token by checking its structure and signature.
+     * Validates the provided token by checking its structure and signature, or for an opaque token its presence
+     * in the store.
      *
-     * @param token the JWT token to validate.
+     * @param token the token to validate.
      * @return true if the token is valid, false otherwise.
      */
     public boolean validateJwtToken(String token) {
+        return resolveEmail(token) != null;
+    }
+
+    /**
+     * Validates the provided token and extracts its email address in one step, so that a JWT is parsed
+     * and verified only once per request, and an opaque token is looked up only once.
+     * Does not check whether the token has been invalidated.
+     * Each validation is reported as a {@link TokenValidationEvent} to Flight Recorder.
+     *
+     * @param token the token to resolve.
+     * @return the email address of the token, or null if the token is not valid.
+     */
+    public String resolveEmail(String token) {
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        if (opaqueTokenStore != null) {
+            String email = opaqueTokenStore.resolve(token);
+            event.commit("opaque", email == null ? "unknown" : "valid");
+            return email;
+        }
+        long start = System.nanoTime();
+        Timer outcome = invalidTokenTimer;
+        String outcomeName = "invalid";
         try {
-            Jwts.parser()
-                    .verifyWith(getSingInKey())
-                    .build()
+            String email = getParser()
                     .parseSignedClaims(token)
-                    .getPayload();
-            return true;
+                    .getPayload()
+                    .getSubject();
+            outcome = validTokenTimer;
+            outcomeName = "valid";
+            return email;
         }catch (ExpiredJwtException expEx){
+            outcome = expiredTokenTimer;
+            outcomeName = "expired";
             LOGGER.error("Expired JwtException", expEx);
         }catch (UnsupportedJwtException expEx){
+            outcome = unsupportedTokenTimer;
+            outcomeName = "unsupported";
             LOGGER.error("Unsupported JwtException", expEx);
         }catch (MalformedJwtException expEx){
+            outcome = malformedTokenTimer;
+            outcomeName = "malformed";
             LOGGER.error("Malformed JwtException", expEx);
         }catch (SecurityException expEx){
+            outcome = rejectedTokenTimer;
+            outcomeName = "rejected";
             LOGGER.error("Security Exception", expEx);
         }catch (Exception expEx){
             LOGGER.error("invalid token", expEx);
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.commit("jwt", outcomeName);
         }
-        return false;
+        return null;
     }
 
     /**
-     * Generates a JWT authentication token for the given email address.
-     * The token will expire in 1 minute.
+     * Retrieves the signing key used for generating and validating JWT tokens.
+     * The key is derived from the secret on first use; concurrent first uses derive the same key.
      *
-     * @param email the email address to associate with the JWT token.
-     * @return the generated JWT authentication token.
+     * @return the SecretKey used for signing JWT tokens.
      */
-    private String generateJwtToken(String email) {
-        Date date = Date.from(LocalDateTime.now().plusMinutes(1).atZone(ZoneId.systemDefault()).toInstant());
-        return Jwts.builder()
-                .subject(email)
-                .expiration(date)
-                .signWith(getSingInKey())
-                .compact();
+    private SecretKey getSingInKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = key;
+        }
+        return key;
     }
 
     /**
-     * Generates a JWT refresh token for the given email address.
-     * The refresh token will expire in 1 day.
+     * Retrieves the immutable, thread-safe parser verifying tokens with the signing key.
      *
-     * @param email the email address to associate with the refresh token.
-     * @return the generated JWT refresh token.
+     * @return the JWT parser.
      */
-    private String generateRefreshToken(String email) {
-        Date date = Date.from(LocalDateTime.now().plusDays(1).atZone(ZoneId.systemDefault()).toInstant());
-        return Jwts.builder()
-                .subject(email)
-                .expiration(date)
-                .signWith(getSingInKey())
-                .compact();
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSingInKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
     }
 
     /**
-     * Retrieves the signing key used for generating and validating JWT tokens.
+     * Creates the timer for signing tokens of the given type.
      *
-     * @return the SecretKey used for signing JWT tokens.
+     * @param meterRegistry the registry to register the timer in.
+     * @param type          the token type.
+     * @return the registered timer.
      */
-    private SecretKey getSingInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static Timer signTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("onemedia.jwt.sign")
+                .description("Time spent signing JWT tokens")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the timer for token validations with the given outcome.
+     *
+     * @param meterRegistry the registry to register the timer in.
+     * @param outcome       the validation outcome.
+     * @return the registered timer.
+     */
+    private static Timer validationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("onemedia.jwt.validate")
+                .description("Time spent parsing and verifying JWT tokens")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,77 @@
+package org.vladislavb.onemediatesttask.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * OpaqueTokenStore issues opaque access tokens and maps them to the email address of their user.
+ * A token is 128 random bits in URL-safe Base64, 22 characters, and carries no information itself; validating
+ * it is a single lookup in a bounded Caffeine cache whose entries expire with the tokens. Invalidating a token
+ * removes its entry. The store lives in memory only, so tokens are lost on restart and unknown to other nodes.
+ *
+ * @author Vladislav Baryshev
+ */
+class OpaqueTokenStore {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int TOKEN_BYTES = 16;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, String> emails;
+
+    /**
+     * Constructs an OpaqueTokenStore.
+     *
+     * @param timeToLive    how long a token stays valid after it was issued.
+     * @param maxTokens     the maximum number of valid tokens; the least recently used are dropped beyond it.
+     * @param meterRegistry the registry used to expose the number of stored tokens.
+     */
+    OpaqueTokenStore(Duration timeToLive, long maxTokens, MeterRegistry meterRegistry) {
+        this.emails = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfterWrite(timeToLive)
+                .build();
+        Gauge.builder("onemedia.jwt.opaque.tokens", emails, Cache::estimatedSize)
+                .description("Number of opaque access tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issues a new token for a user.
+     *
+     * @param email the email address of the user.
+     * @return the token.
+     */
+    String issue(String email) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+        emails.put(token, email);
+        return token;
+    }
+
+    /**
+     * Resolves a token to the email address of its user.
+     *
+     * @param token the token.
+     * @return the email address, or null if the token is unknown, expired or invalidated.
+     */
+    String resolve(String token) {
+        return emails.getIfPresent(token);
+    }
+
+    /**
+     * Invalidates a token.
+     *
+     * @param token the token.
+     */
+    void remove(String token) {
+        emails.invalidate(token);
+    }
+}
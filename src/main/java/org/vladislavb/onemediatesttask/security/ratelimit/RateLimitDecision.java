@@ -0,0 +1,41 @@
+package org.vladislavb.onemediatesttask.security.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of taking one request from a subject's quota.
+ *
+ * @param allowed           whether the request may proceed.
+ * @param group             the name of the route group the quota belongs to.
+ * @param limit             the number of requests allowed per period.
+ * @param periodNanos       the quota period in nanoseconds.
+ * @param remaining         the number of requests that may still be made right away.
+ * @param resetSeconds      the seconds until the full quota is available again.
+ * @param retryAfterSeconds the seconds until a rejected request may be retried, 0 if allowed.
+ * @author Vladislav Baryshev
+ */
+public record RateLimitDecision(boolean allowed, String group, long limit, long periodNanos, long remaining,
+                                long resetSeconds, long retryAfterSeconds) {
+
+    /**
+     * Builds the rate limit response headers of the IETF RateLimit header fields draft,
+     * plus {@code Retry-After} for rejected requests.
+     *
+     * @return the header names and values, in a stable order.
+     */
+    public Map<String, String> headers() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("RateLimit-Policy", limit + ";w=" + TimeUnit.NANOSECONDS.toSeconds(periodNanos));
+        headers.put("RateLimit-Limit", Long.toString(limit));
+        headers.put("RateLimit-Remaining", Long.toString(remaining));
+        headers.put("RateLimit-Reset", Long.toString(resetSeconds));
+        if (!allowed) {
+            headers.put(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        }
+        return headers;
+    }
+}
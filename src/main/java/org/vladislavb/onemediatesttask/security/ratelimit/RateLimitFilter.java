@@ -0,0 +1,73 @@
+package org.vladislavb.onemediatesttask.security.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * RateLimitFilter enforces the per-subject quotas of {@link RateLimiter} on authenticated requests.
+ * It runs right after {@link org.vladislavb.onemediatesttask.security.jwt.JwtFilter}, so the subject is
+ * the one of the validated token, and rejects over-quota requests with 429 before they reach a controller.
+ * Unauthenticated requests are left to the access rules.
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+@Profile("!reactive")
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String REJECTED_MESSAGE = "Too many requests";
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs a RateLimitFilter.
+     *
+     * @param rateLimiter the quotas to enforce.
+     */
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Takes the request from the quota of the authenticated subject, adds the rate limit headers
+     * and either continues the chain or answers with 429.
+     *
+     * @param request the HTTP request object.
+     * @param response the HTTP response object.
+     * @param filterChain the filter chain to pass the request and response to the next filter.
+     * @throws ServletException if a servlet error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        RateLimitDecision decision = authentication != null && authentication.isAuthenticated()
+                ? rateLimiter.tryAcquire(authentication.getName(), request.getRequestURI())
+                : null;
+        if (decision == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        decision.headers().forEach(response::setHeader);
+        if (!decision.allowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(REJECTED_MESSAGE);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,153 @@
+package org.vladislavb.onemediatesttask.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimiter enforces per-subject request quotas for groups of routes.
+ * Each group allows {@code limit} requests per {@code period} to every subject, with bursts of up to
+ * {@code limit} requests, e.g. 600 requests per minute.
+ *
+ * <p>Quotas are tracked with the generic cell rate algorithm: the whole state of a subject is the time at which
+ * its bucket would be full again, held in an {@link AtomicLong} and advanced with compare-and-set, so concurrent
+ * requests of the same subject never lock. The states are kept in a bounded Caffeine cache per group. An entry
+ * expires a period after its last access, when its bucket is full again anyway; an entry evicted because the cache
+ * is full only resets that subject's quota.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final Group postsFetch;
+    private final Group postsRead;
+    private final Group other;
+
+    /**
+     * Constructs a RateLimiter.
+     *
+     * @param enabled          whether quotas are enforced at all.
+     * @param postsFetchLimit  the number of post synchronizations a subject may trigger per period.
+     * @param postsFetchPeriod the period of the post synchronization quota.
+     * @param postsReadLimit   the number of post reads a subject may make per period.
+     * @param postsReadPeriod  the period of the post read quota.
+     * @param defaultLimit     the number of other authenticated requests a subject may make per period.
+     * @param defaultPeriod    the period of the quota for other authenticated requests.
+     * @param maxSubjects      the maximum number of subjects tracked per route group.
+     * @param meterRegistry    the registry used to count rejected requests.
+     */
+    public RateLimiter(@Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${app.security.rate-limit.posts-fetch.limit:5}") long postsFetchLimit,
+                       @Value("${app.security.rate-limit.posts-fetch.period:1m}") Duration postsFetchPeriod,
+                       @Value("${app.security.rate-limit.posts-read.limit:600}") long postsReadLimit,
+                       @Value("${app.security.rate-limit.posts-read.period:1m}") Duration postsReadPeriod,
+                       @Value("${app.security.rate-limit.default.limit:1200}") long defaultLimit,
+                       @Value("${app.security.rate-limit.default.period:1m}") Duration defaultPeriod,
+                       @Value("${app.security.rate-limit.max-subjects:100000}") long maxSubjects,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.postsFetch = new Group("posts-fetch", postsFetchLimit, postsFetchPeriod, maxSubjects, meterRegistry);
+        this.postsRead = new Group("posts-read", postsReadLimit, postsReadPeriod, maxSubjects, meterRegistry);
+        this.other = new Group("default", defaultLimit, defaultPeriod, maxSubjects, meterRegistry);
+    }
+
+    /**
+     * Takes one request from the quota of a subject for the route group of the given path.
+     *
+     * @param subject the authenticated subject, i.e. the JWT subject.
+     * @param path    the request path, used to select the route group.
+     * @return the decision, or null if quotas are disabled.
+     */
+    public RateLimitDecision tryAcquire(String subject, String path) {
+        if (!enabled) {
+            return null;
+        }
+        return groupOf(path).tryAcquire(subject);
+    }
+
+    /**
+     * Selects the route group of a request path.
+     *
+     * @param path the request path.
+     * @return the route group.
+     */
+    private Group groupOf(String path) {
+        if (path.equals("/api/posts/fetch")) {
+            return postsFetch;
+        }
+        if (path.equals("/api/posts") || path.startsWith("/api/posts/")) {
+            return postsRead;
+        }
+        return other;
+    }
+
+    /**
+     * The quota of one route group and the states of the subjects using it.
+     */
+    private static final class Group {
+        private final String name;
+        private final long limit;
+        private final long periodNanos;
+        private final long intervalNanos;
+        private final Cache<String, AtomicLong> fullAt;
+        private final Counter rejected;
+
+        Group(String name, long limit, Duration period, long maxSubjects, MeterRegistry meterRegistry) {
+            if (limit < 1 || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Rate limit of group " + name + " must allow at least one request"
+                        + " per positive period");
+            }
+            this.name = name;
+            this.limit = limit;
+            this.periodNanos = period.toNanos();
+            this.intervalNanos = Math.max(1, periodNanos / limit);
+            this.fullAt = Caffeine.newBuilder()
+                    .maximumSize(maxSubjects)
+                    .expireAfterAccess(period)
+                    .build();
+            this.rejected = Counter.builder("onemedia.ratelimit.rejected")
+                    .description("Requests rejected because the subject exceeded its quota")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Takes one request from the quota of a subject, retrying the compare-and-set on contention.
+         * A request is allowed if, after it, the bucket would be full again no later than one period from now.
+         *
+         * @param subject the authenticated subject.
+         * @return the decision.
+         */
+        RateLimitDecision tryAcquire(String subject) {
+            long now = System.nanoTime();
+            AtomicLong state = fullAt.get(subject, key -> new AtomicLong(now));
+            while (true) {
+                long current = state.get();
+                long next = Math.max(current - now, 0) + now + intervalNanos;
+                long wait = next - periodNanos - now;
+                if (wait > 0) {
+                    rejected.increment();
+                    return new RateLimitDecision(false, name, limit, periodNanos, 0, toSeconds(current - now),
+                            toSeconds(wait));
+                }
+                if (state.compareAndSet(current, next)) {
+                    long remaining = (periodNanos - (next - now)) / intervalNanos;
+                    return new RateLimitDecision(true, name, limit, periodNanos, remaining, toSeconds(next - now), 0);
+                }
+            }
+        }
+
+        private static long toSeconds(long nanos) {
+            return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.vladislavb.onemediatesttask.security.refresh;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.entity.RefreshToken;
+import org.vladislavb.onemediatesttask.repository.RefreshTokenRepository;
+
+import javax.naming.AuthenticationException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * RefreshTokenService issues, rotates and revokes refresh tokens.
+ * Refresh tokens are opaque random strings; only their SHA-256 hashes are stored in the "refresh_tokens" table.
+ *
+ * <p>Every refresh exchanges the presented token for a new one of the same family. The presented token is
+ * locked by its primary key, marked as used and its successor is inserted in the same transaction, so
+ * concurrent refreshes with the same token are serialized. Presenting a token that has already been used
+ * means it has leaked, so the whole family is deleted and every token of the chain becomes invalid.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger LOGGER = LogManager.getLogger(RefreshTokenService.class);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration timeToLive;
+    private final int purgeBatchSize;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Counter rotatedTokens;
+    private final Counter reusedTokens;
+    private final Counter rejectedTokens;
+
+    /**
+     * Constructs a RefreshTokenService.
+     *
+     * @param refreshTokenRepository the repository of issued refresh tokens.
+     * @param timeToLive             how long a refresh token stays valid after it was issued.
+     * @param purgeBatchSize         the maximum number of expired tokens deleted per transaction.
+     * @param meterRegistry          the registry used to record refresh outcomes.
+     */
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.security.refresh-token.time-to-live:1d}") Duration timeToLive,
+                               @Value("${app.security.refresh-token.purge-batch-size:1000}") int purgeBatchSize,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.timeToLive = timeToLive;
+        this.purgeBatchSize = purgeBatchSize;
+        this.rotatedTokens = refreshCounter(meterRegistry, "rotated");
+        this.reusedTokens = refreshCounter(meterRegistry, "reused");
+        this.rejectedTokens = refreshCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Issues the first refresh token of a new family.
+     *
+     * @param userId the identifier of the user the token is issued to.
+     * @return the refresh token.
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(UUID.randomUUID(), userId, Instant.now());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one of the same family.
+     * The family is deleted if the token has already been used. The transaction commits even though
+     * an {@link AuthenticationException} is thrown then, so the deletion is kept.
+     *
+     * @param token the refresh token presented by the client.
+     * @return the user the token was issued to and the new refresh token.
+     * @throws AuthenticationException if the token is unknown, expired or has already been used.
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Rotation rotate(String token) throws AuthenticationException {
+        Instant now = Instant.now();
+        RefreshToken current = refreshTokenRepository.findForUpdate(hash(token)).orElse(null);
+        if (current == null || !current.getExpiresAt().isAfter(now)) {
+            rejectedTokens.increment();
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        if (current.getUsedAt() != null) {
+            reusedTokens.increment();
+            int revoked = refreshTokenRepository.deleteFamily(current.getFamilyId());
+            LOGGER.warn("Refresh token of user {} was reused, revoked {} tokens of its family",
+                    current.getUserId(), revoked);
+            throw new AuthenticationException("Refresh token has already been used");
+        }
+        current.setUsedAt(now);
+        rotatedTokens.increment();
+        return new Rotation(current.getUserId(), issue(current.getFamilyId(), current.getUserId(), now));
+    }
+
+    /**
+     * Revokes the family of the given refresh token, if the token is known.
+     *
+     * @param token the refresh token presented by the client.
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findById(hash(token))
+                .ifPresent(refreshToken -> refreshTokenRepository.deleteFamily(refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Deletes expired refresh tokens in batches of at most {@code purgeBatchSize} rows,
+     * each batch in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.security.refresh-token.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpired(now, purgeBatchSize);
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        if (purged > 0) {
+            LOGGER.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    /**
+     * Generates a refresh token and stores its hash.
+     *
+     * @param familyId the family of the token.
+     * @param userId   the identifier of the user the token is issued to.
+     * @param now      the issue time.
+     * @return the refresh token.
+     */
+    private String issue(UUID familyId, Long userId, Instant now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUserId(userId);
+        refreshToken.setExpiresAt(now.plus(timeToLive));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 hash of a token.
+     *
+     * @param token the token.
+     * @return the hash as 64 hex characters.
+     */
+    private static String hash(String token) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Creates the counter for refreshes with the given outcome.
+     *
+     * @param meterRegistry the registry to register the counter in.
+     * @param outcome       the refresh outcome.
+     * @return the registered counter.
+     */
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("onemedia.auth.refresh")
+                .description("Refresh token exchanges by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The result of a refresh token rotation.
+     *
+     * @param userId       the identifier of the user the token was issued to.
+     * @param refreshToken the new refresh token.
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+}
@@ -0,0 +1,80 @@
+package org.vladislavb.onemediatesttask.security.revocation;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over SHA-256 token hashes.
+ * A negative answer is definite, a positive answer may be a false positive with the configured probability.
+ * Bit positions are derived from the first 16 bytes of the hash by double hashing, so no further hashing is needed.
+ * Entries cannot be removed; the filter is rebuilt instead once revoked tokens have expired.
+ *
+ * @author Vladislav Baryshev
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the expected number of entries and false positive probability.
+     *
+     * @param expectedEntries          the number of entries the filter is sized for.
+     * @param falsePositiveProbability the false positive probability at the expected number of entries.
+     */
+    BloomFilter(long expectedEntries, double falsePositiveProbability) {
+        long entries = Math.max(1, expectedEntries);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+    }
+
+    /**
+     * Adds a token hash to the filter.
+     *
+     * @param hash the SHA-256 hash of the token.
+     * @return true if the filter changed, false if the hash was already added or is a false positive.
+     */
+    boolean put(byte[] hash) {
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        long h1 = buffer.getLong(0);
+        long h2 = buffer.getLong(8);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+                current = words.get(word);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks if a token hash may have been added to the filter.
+     *
+     * @param hash the SHA-256 hash of the token.
+     * @return false if the hash was definitely never added, true if it may have been.
+     */
+    boolean mightContain(byte[] hash) {
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        long h1 = buffer.getLong(0);
+        long h2 = buffer.getLong(8);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
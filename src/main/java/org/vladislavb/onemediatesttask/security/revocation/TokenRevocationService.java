@@ -0,0 +1,236 @@
+package org.vladislavb.onemediatesttask.security.revocation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.vladislavb.onemediatesttask.entity.RevokedToken;
+import org.vladislavb.onemediatesttask.repository.RevokedTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TokenRevocationService keeps track of revoked JWTs across all application nodes.
+ * Revocations are written to the shared "revoked_tokens" table and every node polls the table for revocations
+ * made by the others. Locally, each node keeps a Bloom filter of all revoked token hashes, so that the common
+ * "not revoked" answer is given without a database lookup, and a near-cache of recent exact answers, so that
+ * Bloom filter false positives are resolved by the database only once.
+ *
+ * <p>Until the first load from the database has finished, every check goes to the database.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger LOGGER = LogManager.getLogger(TokenRevocationService.class);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveProbability;
+    private final Duration pollOverlap;
+    private final Cache<String, Boolean> nearCache;
+    private final Counter remoteLookups;
+    private final AtomicLong revokedTokenCount = new AtomicLong();
+    private volatile BloomFilter bloomFilter;
+    private volatile boolean loaded;
+    private volatile Instant pollCursor = Instant.EPOCH;
+
+    /**
+     * Constructs a TokenRevocationService.
+     *
+     * @param revokedTokenRepository   the repository of revoked tokens shared by all nodes.
+     * @param expectedTokens           the number of concurrently revoked tokens the Bloom filter is sized for.
+     * @param falsePositiveProbability the Bloom filter false positive probability at the expected size.
+     * @param nearCacheSize            the maximum number of exact answers kept in the near-cache.
+     * @param pollOverlap              how far back each poll looks before the newest revocation seen so far,
+     *                                 so that revocations committed late are not missed.
+     * @param meterRegistry            the registry used to record revocation metrics.
+     */
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${app.security.revocation.expected-tokens:100000}") long expectedTokens,
+                                  @Value("${app.security.revocation.false-positive-probability:0.001}")
+                                  double falsePositiveProbability,
+                                  @Value("${app.security.revocation.near-cache-size:10000}") long nearCacheSize,
+                                  @Value("${app.security.revocation.poll-overlap:30s}") Duration pollOverlap,
+                                  MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.pollOverlap = pollOverlap;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+        this.bloomFilter = new BloomFilter(expectedTokens, falsePositiveProbability);
+        this.remoteLookups = Counter.builder("onemedia.jwt.revocation.remote.lookups")
+                .description("Revocation checks that had to query the database")
+                .register(meterRegistry);
+        Gauge.builder("onemedia.jwt.revoked.tokens", revokedTokenCount, AtomicLong::get)
+                .description("Number of distinct unexpired revoked tokens as of the last rebuild, plus those "
+                        + "revoked since")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revokes a token on all nodes. The revocation is visible on this node immediately
+     * and on the other nodes after their next poll.
+     *
+     * @param token     the token to revoke.
+     * @param expiresAt the expiration time of the token.
+     */
+    public void revoke(String token, Instant expiresAt) {
+        byte[] hash = hash(token);
+        String hex = HEX.formatHex(hash);
+        if (!revokedTokenRepository.existsById(hex)) {
+            RevokedToken revokedToken = new RevokedToken();
+            revokedToken.setTokenHash(hex);
+            revokedToken.setExpiresAt(expiresAt);
+            try {
+                revokedTokenRepository.save(revokedToken);
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.debug("Token was revoked concurrently by another request");
+            }
+        }
+        add(bloomFilter, hash);
+        nearCache.put(hex, Boolean.TRUE);
+    }
+
+    /**
+     * Checks if a token has been revoked on any node.
+     *
+     * @param token the token to check.
+     * @return true if the token is revoked, false otherwise.
+     */
+    public boolean isRevoked(String token) {
+        byte[] hash = hash(token);
+        Boolean revoked = lookupLocally(hash);
+        if (revoked == null) {
+            String hex = HEX.formatHex(hash);
+            remoteLookups.increment();
+            revoked = revokedTokenRepository.existsById(hex);
+            nearCache.put(hex, revoked);
+        }
+        return revoked;
+    }
+
+    /**
+     * Checks if a token has been revoked using only the Bloom filter and the near-cache, without blocking.
+     * Callers that must not block fall back to {@link #isRevoked} on a worker thread when this returns {@code null}.
+     *
+     * @param token the token to check.
+     * @return true or false if the answer is known locally, {@code null} if the database has to be asked.
+     */
+    public Boolean isRevokedLocally(String token) {
+        return lookupLocally(hash(token));
+    }
+
+    /**
+     * Loads the revocations made since the last poll, including those made by other nodes.
+     * Does nothing until the initial load has finished.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.poll-interval-ms:2000}")
+    public void pollRevocations() {
+        if (!loaded) {
+            return;
+        }
+        List<RevokedToken> revokedTokens = revokedTokenRepository
+                .findByRevokedAtGreaterThanEqualAndExpiresAtAfter(pollCursor.minus(pollOverlap), Instant.now());
+        BloomFilter current = bloomFilter;
+        for (RevokedToken revokedToken : revokedTokens) {
+            add(current, HEX.parseHex(revokedToken.getTokenHash()));
+            nearCache.put(revokedToken.getTokenHash(), Boolean.TRUE);
+        }
+        advanceCursor(revokedTokens);
+    }
+
+    /**
+     * Deletes revocations of expired tokens and rebuilds the Bloom filter from the remaining ones,
+     * as entries cannot be removed from a Bloom filter. Runs once at startup and then periodically.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findByExpiresAtAfter(now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2L * revokedTokens.size()),
+                falsePositiveProbability);
+        for (RevokedToken revokedToken : revokedTokens) {
+            rebuilt.put(HEX.parseHex(revokedToken.getTokenHash()));
+        }
+        bloomFilter = rebuilt;
+        revokedTokenCount.set(revokedTokens.size());
+        advanceCursor(revokedTokens);
+        loaded = true;
+        LOGGER.info("Loaded {} revoked tokens, purged {} expired revocations", revokedTokens.size(), purged);
+    }
+
+    /**
+     * Adds a token hash to a Bloom filter and counts it only if it changed the filter, as polls load the same
+     * revocations again until the cursor moves past them. A new hash that is a false positive of the filter is
+     * not counted, so between rebuilds the count may be slightly low.
+     *
+     * @param filter the filter to add to.
+     * @param hash   the hash of the token.
+     */
+    private void add(BloomFilter filter, byte[] hash) {
+        if (filter.put(hash)) {
+            revokedTokenCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Answers a revocation check from the Bloom filter and the near-cache.
+     *
+     * @param hash the hash of the token.
+     * @return the answer, or {@code null} if it is not known locally.
+     */
+    private Boolean lookupLocally(byte[] hash) {
+        if (loaded && !bloomFilter.mightContain(hash)) {
+            return Boolean.FALSE;
+        }
+        return nearCache.getIfPresent(HEX.formatHex(hash));
+    }
+
+    /**
+     * Moves the poll cursor to the newest revocation time among the given tokens.
+     *
+     * @param revokedTokens the tokens that were just loaded.
+     */
+    private void advanceCursor(List<RevokedToken> revokedTokens) {
+        for (RevokedToken revokedToken : revokedTokens) {
+            if (revokedToken.getRevokedAt().isAfter(pollCursor)) {
+                pollCursor = revokedToken.getRevokedAt();
+            }
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of a token.
+     *
+     * @param token the token.
+     * @return the 32-byte hash.
+     */
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.vladislavb.onemediatesttask.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.vladislavb.onemediatesttask.dto.CacheRegionStatisticsDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * CacheStatisticsService exposes the Hibernate second-level cache statistics,
+ * such as hits, misses and hit ratio of every cache region.
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class CacheStatisticsService {
+    private final Statistics statistics;
+
+    /**
+     * Constructs a CacheStatisticsService reading statistics from the Hibernate session factory.
+     *
+     * @param entityManagerFactory the JPA entity manager factory backed by Hibernate.
+     */
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Retrieves the statistics of all second-level cache regions, including the query cache regions.
+     *
+     * @return a list of region statistics ordered by region name.
+     */
+    public List<CacheRegionStatisticsDto> getRegionStatistics() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDto(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Converts the statistics of a single region into a DTO.
+     *
+     * @param region           the region name.
+     * @param regionStatistics the region statistics, or {@code null} if the region is unknown.
+     * @return the region statistics DTO, or {@code null} if the region is unknown.
+     */
+    private CacheRegionStatisticsDto toDto(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return null;
+        }
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        return new CacheRegionStatisticsDto(region, hits, misses, regionStatistics.getPutCount(), hitRatio,
+                regionStatistics.getElementCountInMemory());
+    }
+}
@@ -0,0 +1,142 @@
+package org.vladislavb.onemediatesttask.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+import org.vladislavb.onemediatesttask.entity.Post;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * PostJsonCache keeps a pre-encoded UTF-8 JSON representation of every post, ordered by post ID.
+ * List responses are produced by concatenating the cached byte segments into the output stream,
+ * so no object mapping happens per request. Entries are re-encoded only when the content of a post changes.
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+public class PostJsonCache {
+
+    private static final byte[] OPEN_ARRAY = {'['};
+    private static final byte[] CLOSE_ARRAY = {']'};
+    private static final byte[] SEPARATOR = {','};
+
+    private final ObjectWriter postWriter;
+    private final ConcurrentSkipListMap<Long, CachedPost> entries = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Constructs a PostJsonCache using the application's configured {@link ObjectMapper},
+     * so cached segments are identical to what Jackson would produce for a {@link Post}.
+     *
+     * @param objectMapper the object mapper used to encode posts.
+     */
+    public PostJsonCache(ObjectMapper objectMapper) {
+        this.postWriter = objectMapper.writerFor(Post.class);
+    }
+
+    /**
+     * Checks if the cache has been populated with the full set of posts.
+     *
+     * @return true if the cache is loaded, false otherwise.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces the whole cache content with the supplied posts unless the cache is already loaded.
+     * The supplier is invoked while holding the cache lock, so a concurrent {@link #refresh} is applied
+     * after the load instead of being overwritten by it.
+     *
+     * @param posts supplier of all posts currently stored in the database.
+     */
+    public synchronized void load(Supplier<? extends Collection<Post>> posts) {
+        if (loaded) {
+            return;
+        }
+        entries.clear();
+        posts.get().forEach(post -> entries.put(post.getId(), encode(post)));
+        loaded = true;
+    }
+
+    /**
+     * Re-encodes only those posts whose content differs from the cached version.
+     * Does nothing until the cache has been loaded, as the next load reads all posts anyway.
+     *
+     * @param posts the posts that were written during ingest.
+     * @return the number of posts that were re-encoded.
+     */
+    public synchronized int refresh(Collection<Post> posts) {
+        if (!loaded) {
+            return 0;
+        }
+        int encoded = 0;
+        for (Post post : posts) {
+            CachedPost cached = entries.get(post.getId());
+            if (cached == null || !Objects.equals(cached.post(), post)) {
+                entries.put(post.getId(), encode(post));
+                encoded++;
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Discards all cached posts, so the next request loads them again from the database,
+     * e.g. after the posts table was replaced as a whole.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        entries.clear();
+    }
+
+    /**
+     * Writes all cached posts as a JSON array to the given stream.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(OPEN_ARRAY);
+        boolean first = true;
+        for (CachedPost cached : entries.values()) {
+            if (!first) {
+                out.write(SEPARATOR);
+            }
+            out.write(cached.json());
+            first = false;
+        }
+        out.write(CLOSE_ARRAY);
+    }
+
+    /**
+     * Encodes a single post into its JSON bytes.
+     *
+     * @param post the post to encode.
+     * @return the cache entry holding the post and its encoded form.
+     */
+    private CachedPost encode(Post post) {
+        try {
+            return new CachedPost(post, postWriter.writeValueAsBytes(post));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A cached post together with its pre-encoded JSON representation.
+     *
+     * @param post the post the bytes were encoded from, used to detect changes.
+     * @param json the UTF-8 JSON bytes of the post.
+     */
+    private record CachedPost(Post post, byte[] json) {
+    }
+}
@@ -1,12 +1,29 @@
 package org.vladislavb.onemediatesttask.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.vladislavb.onemediatesttask.datasource.ReadYourWritesWindow;
+import org.vladislavb.onemediatesttask.dto.AuthorPostStatisticsDto;
+import org.vladislavb.onemediatesttask.dto.PostSummary;
 import org.vladislavb.onemediatesttask.entity.Post;
+import org.vladislavb.onemediatesttask.exceprionHandler.BadRequestException;
+import org.vladislavb.onemediatesttask.jfr.PostIngestChunkEvent;
 import org.vladislavb.onemediatesttask.repository.PostRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * PostService is a service class that handles operations related to posts.
@@ -17,30 +34,113 @@ import java.util.List;
  */
 @Service
 public class PostService {
+    private static final Set<String> POST_FIELDS = Set.of("id", "userId", "title", "body");
+
     private final PostRepository postRepository;
     private final RestTemplate restTemplate;
+    private final PostJsonCache postJsonCache;
+    private final PostStatistics postStatistics;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final String upstreamUrl;
+    private final Timer fetchTimer;
+    private final Timer persistTimer;
+    private final Counter persistedPosts;
 
     /**
-     * Constructs a PostService with the given PostRepository and RestTemplate.
+     * Constructs a PostService with the given PostRepository, RestTemplate, PostJsonCache, PostStatistics
+     * and ReadYourWritesWindow.
      *
-     * @param postRepository the repository used to interact with the post database.
-     * @param restTemplate   the RestTemplate used for making HTTP requests.
+     * @param postRepository       the repository used to interact with the post database.
+     * @param restTemplate         the RestTemplate used for making HTTP requests.
+     * @param postJsonCache        the cache of pre-encoded post JSON used for list responses.
+     * @param postStatistics       the per-author post statistics maintained during ingest.
+     * @param readYourWritesWindow the window that keeps reads on the primary database after ingest.
+     * @param upstreamUrl          the URL of the external API the posts are fetched from.
+     * @param meterRegistry        the registry used to record the ingest phases.
      */
-    public PostService(PostRepository postRepository, RestTemplate restTemplate) {
+    public PostService(PostRepository postRepository, RestTemplate restTemplate, PostJsonCache postJsonCache,
+                       PostStatistics postStatistics, ReadYourWritesWindow readYourWritesWindow,
+                       @Value("${app.posts.upstream-url:https://jsonplaceholder.typicode.com/posts}") String upstreamUrl,
+                       MeterRegistry meterRegistry) {
         this.postRepository = postRepository;
         this.restTemplate = restTemplate;
+        this.postJsonCache = postJsonCache;
+        this.postStatistics = postStatistics;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.upstreamUrl = upstreamUrl;
+        this.fetchTimer = Timer.builder("onemedia.posts.ingest")
+                .description("Time spent in each phase of the post ingest")
+                .tag("phase", "fetch")
+                .register(meterRegistry);
+        this.persistTimer = Timer.builder("onemedia.posts.ingest")
+                .description("Time spent in each phase of the post ingest")
+                .tag("phase", "persist")
+                .register(meterRegistry);
+        this.persistedPosts = Counter.builder("onemedia.posts.persisted")
+                .description("Number of posts written by the post ingest")
+                .register(meterRegistry);
     }
 
     /**
      * Fetches posts from an external API and saves them to the database.
-     * The posts are fetched from the URL "https://jsonplaceholder.typicode.com/posts".
+     * The posts are fetched from the URL configured by {@code app.posts.upstream-url},
+     * "https://jsonplaceholder.typicode.com/posts" by default.
+     * Cached JSON is re-encoded only for the posts whose content has changed, the per-author statistics
+     * are updated with the saved posts, and a read-your-writes
+     * window is opened so that subsequent reads see the new posts.
+     * The write is reported as a {@link PostIngestChunkEvent} to Flight Recorder.
      *
      * @return a list of saved {@link Post} objects after they are fetched and saved to the database.
      */
     public List<Post> fetchAndSavePosts() {
-        String url = "https://jsonplaceholder.typicode.com/posts";
-        Post[] posts = restTemplate.getForObject(url, Post[].class);
-        return postRepository.saveAll(Arrays.asList(posts));
+        Post[] posts = fetchTimer.record(() -> restTemplate.getForObject(upstreamUrl, Post[].class));
+        PostIngestChunkEvent event = new PostIngestChunkEvent();
+        event.begin();
+        List<Post> saved = persistTimer.record(() -> postRepository.saveAll(Arrays.asList(posts)));
+        event.commit("upstream", saved.size(), () -> payloadBytes(saved));
+        readYourWritesWindow.markWrite();
+        persistedPosts.increment(saved.size());
+        postJsonCache.refresh(saved);
+        postStatistics.apply(saved);
+        return saved;
+    }
+
+    /**
+     * Computes the UTF-8 size of the titles and bodies of posts.
+     *
+     * @param posts the posts.
+     * @return the size in bytes.
+     */
+    static long payloadBytes(List<Post> posts) {
+        long bytes = 0;
+        for (Post post : posts) {
+            bytes += PostIngestChunkEvent.utf8Length(post.getTitle())
+                    + PostIngestChunkEvent.utf8Length(post.getBody());
+        }
+        return bytes;
+    }
+
+    /**
+     * Retrieves the post statistics of every author.
+     * The statistics are built from the database on first use and maintained in memory afterward.
+     *
+     * @return a list of author statistics ordered by user ID.
+     */
+    public List<AuthorPostStatisticsDto> getPostStatistics() {
+        if (!postStatistics.isLoaded()) {
+            postStatistics.load(postRepository::findAllSizes);
+        }
+        return postStatistics.getAll();
+    }
+
+    /**
+     * Rebuilds the post statistics of every author from the database.
+     *
+     * @return a list of the rebuilt author statistics ordered by user ID.
+     */
+    public List<AuthorPostStatisticsDto> rebuildPostStatistics() {
+        postStatistics.rebuild(postRepository::findAllSizes);
+        return postStatistics.getAll();
     }
 
     /**
@@ -51,4 +151,78 @@ public class PostService {
     public List<Post> getAllPosts() {
         return postRepository.findAll();
     }
+
+    /**
+     * Writes all posts as a JSON array to the given stream using the pre-encoded cache.
+     * The cache is loaded from the database on first use.
+     *
+     * @param out the stream to write the JSON array to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeAllPostsJson(OutputStream out) throws IOException {
+        if (!postJsonCache.isLoaded()) {
+            postJsonCache.load(postRepository::findAll);
+        }
+        postJsonCache.writeTo(out);
+    }
+
+    /**
+     * Retrieves all posts ordered by ID, keeping only the requested fields.
+     * Unless the body is requested, posts are read through the {@link PostSummary} projection,
+     * so the body column is never loaded.
+     *
+     * @param fields the names of the post fields to include, in response order.
+     * @return a list of posts, each represented as a map of the requested fields.
+     * @throws BadRequestException if no fields are given or a field is unknown.
+     */
+    public List<Map<String, Object>> getPostFields(Collection<String> fields) {
+        Set<String> requested = requestedFields(fields);
+        if (requested.contains("body")) {
+            return postRepository.findAll(Sort.by("id")).stream()
+                    .map(post -> toFieldMap(requested, post.getId(), post.getUserId(), post.getTitle(), post.getBody()))
+                    .toList();
+        }
+        return postRepository.findSummariesByOrderByIdAsc().stream()
+                .map(post -> toFieldMap(requested, post.getId(), post.getUserId(), post.getTitle(), null))
+                .toList();
+    }
+
+    /**
+     * Validates the requested post field names, shared with the reactive stack.
+     *
+     * @param fields the names of the post fields to include, in response order.
+     * @return the distinct field names in request order.
+     * @throws BadRequestException if no fields are given or a field is unknown.
+     */
+    public static Set<String> requestedFields(Collection<String> fields) {
+        Set<String> requested = new LinkedHashSet<>(fields);
+        if (requested.isEmpty() || !POST_FIELDS.containsAll(requested)) {
+            throw new BadRequestException("Unsupported post fields: " + fields + ", allowed: " + POST_FIELDS);
+        }
+        return requested;
+    }
+
+    /**
+     * Builds a map containing only the requested post fields, shared with the reactive stack.
+     *
+     * @param fields the requested field names.
+     * @param id     the post ID.
+     * @param userId the user ID.
+     * @param title  the post title.
+     * @param body   the post body, or {@code null} if it was not loaded.
+     * @return a map of the requested fields in request order.
+     */
+    public static Map<String, Object> toFieldMap(Set<String> fields, Long id, Long userId, String title, String body) {
+        Map<String, Object> values = new LinkedHashMap<>(fields.size());
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> values.put(field, id);
+                case "userId" -> values.put(field, userId);
+                case "title" -> values.put(field, title);
+                case "body" -> values.put(field, body);
+                default -> throw new IllegalArgumentException("Unsupported post field: " + field);
+            }
+        }
+        return values;
+    }
 }
@@ -0,0 +1,474 @@
+package org.vladislavb.onemediatesttask.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.vladislavb.onemediatesttask.datasource.ReadYourWritesWindow;
+import org.vladislavb.onemediatesttask.dto.PostSnapshotDto;
+import org.vladislavb.onemediatesttask.entity.Post;
+import org.vladislavb.onemediatesttask.exceprionHandler.BadRequestException;
+import org.vladislavb.onemediatesttask.jfr.PostIngestChunkEvent;
+
+import javax.sql.DataSource;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * PostSnapshotService writes the posts table to a compressed local file and restores it from there,
+ * so a fresh node can be populated without calling the upstream.
+ *
+ * <p>The snapshot is written while the table is streamed with a cursor, and consists of independent chunks
+ * of about the configured size: a header with the compressed and uncompressed length, the number of rows and
+ * a CRC32 of the rows, followed by the Deflate-compressed rows. A chunk with a compressed length of zero ends
+ * the file. The file is written next to its destination and moved into place once complete, so a crash never
+ * leaves a partial snapshot behind.</p>
+ *
+ * <p>Restoring maps one chunk at a time into memory, inflates it straight from the mapping and inserts its
+ * rows as one JDBC batch, reported as a {@link PostIngestChunkEvent} to Flight Recorder. The whole table is
+ * replaced in one transaction, after which the second-level cache and the in-memory post views are discarded
+ * and reloaded on the next request.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class PostSnapshotService implements ApplicationRunner {
+
+    private static final Logger LOGGER = LogManager.getLogger(PostSnapshotService.class);
+    private static final int MAGIC = 0x4F4D5053; // "OMPS"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int CHUNK_HEADER_BYTES = 16;
+    private static final int FETCH_SIZE = 1000;
+    private static final String SELECT_POSTS = "SELECT id, user_id, title, body FROM posts ORDER BY id";
+    private static final String INSERT_POST = "INSERT INTO posts (id, user_id, title, body) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PostJsonCache postJsonCache;
+    private final PostStatistics postStatistics;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final Path path;
+    private final int chunkBytes;
+    private final int compressionLevel;
+    private final boolean restoreOnStartup;
+    private final Timer writeTimer;
+    private final Timer restoreTimer;
+
+    /**
+     * Constructs a PostSnapshotService.
+     *
+     * @param dataSource           the data source of the posts table.
+     * @param transactionManager   the transaction manager the snapshot is read and restored in.
+     * @param entityManagerFactory the entity manager factory whose second-level cache is evicted on restore.
+     * @param postJsonCache        the cache of pre-encoded post JSON, discarded on restore.
+     * @param postStatistics       the per-author post statistics, discarded on restore.
+     * @param readYourWritesWindow the window that routes reads to the primary after the restore.
+     * @param path                 the snapshot file.
+     * @param chunkSize            the uncompressed size of a chunk.
+     * @param compressionLevel     the Deflate level, from 1 (fastest) to 9 (smallest).
+     * @param restoreOnStartup     whether to restore the snapshot at startup if the posts table is empty.
+     * @param meterRegistry        the registry used to record the time of writes and restores.
+     */
+    public PostSnapshotService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               EntityManagerFactory entityManagerFactory, PostJsonCache postJsonCache,
+                               PostStatistics postStatistics, ReadYourWritesWindow readYourWritesWindow,
+                               @Value("${app.posts.snapshot.path:data/posts.snapshot}") Path path,
+                               @Value("${app.posts.snapshot.chunk-size:1MB}") DataSize chunkSize,
+                               @Value("${app.posts.snapshot.compression-level:6}") int compressionLevel,
+                               @Value("${app.posts.snapshot.restore-on-startup:false}") boolean restoreOnStartup,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityManagerFactory = entityManagerFactory;
+        this.postJsonCache = postJsonCache;
+        this.postStatistics = postStatistics;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.path = path.toAbsolutePath();
+        this.chunkBytes = Math.toIntExact(chunkSize.toBytes());
+        this.compressionLevel = compressionLevel;
+        this.restoreOnStartup = restoreOnStartup;
+        this.writeTimer = snapshotTimer(meterRegistry, "write");
+        this.restoreTimer = snapshotTimer(meterRegistry, "restore");
+    }
+
+    /**
+     * Restores the snapshot at startup if enabled, the file exists and the posts table is empty.
+     * Runners complete before the application reports readiness, so no traffic is routed to a half-filled node.
+     *
+     * @param args the application arguments.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!restoreOnStartup || !Files.exists(path)) {
+            return;
+        }
+        if (!jdbcTemplate.queryForList("SELECT id FROM posts LIMIT 1", Long.class).isEmpty()) {
+            LOGGER.info("Posts table is not empty, skipping the restore of {}", path);
+            return;
+        }
+        PostSnapshotDto restored = restore();
+        LOGGER.info("Restored {} posts from {} in {} ms", restored.getPosts(), path, restored.getDurationMillis());
+    }
+
+    /**
+     * Writes all posts to the snapshot file, replacing the previous snapshot.
+     *
+     * @return a description of the written snapshot.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized PostSnapshotDto snapshot() throws IOException {
+        long start = System.nanoTime();
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        ChunkWriter writer;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writer = new ChunkWriter(channel, chunkBytes, compressionLevel);
+            try {
+                readOnlyTransactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_POSTS, rs -> {
+                    long id = rs.getLong(1);
+                    long userId = rs.getLong(2);
+                    writer.write(id, rs.wasNull() ? null : userId, rs.getString(3), rs.getString(4));
+                }));
+                writer.finish();
+            } finally {
+                writer.end();
+            }
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temp);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long elapsed = System.nanoTime() - start;
+        writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new PostSnapshotDto(path.toString(), writer.posts, writer.chunks, Files.size(path), elapsed / 1_000_000);
+    }
+
+    /**
+     * Replaces all posts with the content of the snapshot file.
+     *
+     * @return a description of the restored snapshot.
+     * @throws IOException if the file cannot be read or is corrupt.
+     */
+    public synchronized PostSnapshotDto restore() throws IOException {
+        if (!Files.exists(path)) {
+            throw new BadRequestException("No posts snapshot at " + path);
+        }
+        long start = System.nanoTime();
+        ChunkReader reader;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            reader = new ChunkReader(channel);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM posts");
+                while (true) {
+                    PostIngestChunkEvent event = new PostIngestChunkEvent();
+                    event.begin();
+                    List<Post> rows = reader.next();
+                    if (rows == null) {
+                        break;
+                    }
+                    jdbcTemplate.batchUpdate(INSERT_POST, rows, rows.size(), (statement, post) -> {
+                        statement.setLong(1, post.getId());
+                        statement.setObject(2, post.getUserId());
+                        statement.setString(3, post.getTitle());
+                        statement.setString(4, post.getBody());
+                    });
+                    event.commit("snapshot", rows.size(), () -> PostService.payloadBytes(rows));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            readYourWritesWindow.markWrite();
+            evictCaches();
+        }
+        long elapsed = System.nanoTime() - start;
+        restoreTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new PostSnapshotDto(path.toString(), reader.posts, reader.chunks, Files.size(path), elapsed / 1_000_000);
+    }
+
+    /**
+     * Discards every cached view of the posts, as the table was replaced as a whole.
+     */
+    private void evictCaches() {
+        entityManagerFactory.getCache().evict(Post.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        postJsonCache.invalidate();
+        postStatistics.invalidate();
+    }
+
+    /**
+     * Creates the timer of snapshot operations of the given kind.
+     *
+     * @param meterRegistry the registry to register the timer in.
+     * @param operation     the kind of operation.
+     * @return the registered timer.
+     */
+    private static Timer snapshotTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("onemedia.posts.snapshot")
+                .description("Time spent writing and restoring snapshots of the posts table")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Collects rows into a buffer and writes it as a compressed chunk to the file once it reaches the chunk size.
+     */
+    private static final class ChunkWriter {
+        private final FileChannel channel;
+        private final int chunkBytes;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer header = ByteBuffer.allocateDirect(CHUNK_HEADER_BYTES);
+        private ByteBuffer rows;
+        private ByteBuffer compressed;
+        private int rowCount;
+        private long posts;
+        private int chunks;
+
+        ChunkWriter(FileChannel channel, int chunkBytes, int compressionLevel) throws IOException {
+            this.channel = channel;
+            this.chunkBytes = chunkBytes;
+            this.deflater = new Deflater(compressionLevel);
+            this.rows = ByteBuffer.allocate(chunkBytes);
+            this.compressed = ByteBuffer.allocateDirect(chunkBytes / 2);
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(fileHeader);
+        }
+
+        /**
+         * Appends a row: the ID, a flag and the user ID if present, then title and body as length-prefixed
+         * UTF-8, with a length of -1 for null.
+         */
+        void write(long id, Long userId, String title, String body) {
+            byte[] titleBytes = title == null ? null : title.getBytes(StandardCharsets.UTF_8);
+            byte[] bodyBytes = body == null ? null : body.getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(8 + 1 + 8 + 4 + length(titleBytes) + 4 + length(bodyBytes));
+            rows.putLong(id);
+            rows.put((byte) (userId == null ? 0 : 1));
+            if (userId != null) {
+                rows.putLong(userId);
+            }
+            putBytes(titleBytes);
+            putBytes(bodyBytes);
+            rowCount++;
+            if (rows.position() >= chunkBytes) {
+                try {
+                    flushChunk();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * Writes the last chunk and the end marker, and forces the file to disk.
+         */
+        void finish() throws IOException {
+            flushChunk();
+            header.clear();
+            header.putInt(0).putInt(0).putInt(0).putInt(0).flip();
+            writeFully(header);
+            channel.force(true);
+        }
+
+        /**
+         * Releases the native memory of the compressor.
+         */
+        void end() {
+            deflater.end();
+        }
+
+        private void flushChunk() throws IOException {
+            if (rowCount == 0) {
+                return;
+            }
+            rows.flip();
+            int length = rows.remaining();
+            crc.reset();
+            crc.update(rows.array(), 0, length);
+            deflater.reset();
+            deflater.setInput(rows);
+            deflater.finish();
+            compressed.clear();
+            while (!deflater.finished()) {
+                if (!compressed.hasRemaining()) {
+                    compressed = ByteBuffer.allocateDirect(compressed.capacity() * 2).put(compressed.flip());
+                }
+                deflater.deflate(compressed);
+            }
+            compressed.flip();
+            header.clear();
+            header.putInt(compressed.remaining()).putInt(length).putInt(rowCount).putInt((int) crc.getValue()).flip();
+            writeFully(header, compressed);
+            rows.clear();
+            posts += rowCount;
+            chunks++;
+            rowCount = 0;
+        }
+
+        private void ensureRemaining(int bytes) {
+            if (rows.remaining() < bytes) {
+                rows = ByteBuffer.allocate(Math.max(rows.capacity() * 2, rows.position() + bytes))
+                        .put(rows.flip());
+            }
+        }
+
+        private void putBytes(byte[] bytes) {
+            if (bytes == null) {
+                rows.putInt(-1);
+            } else {
+                rows.putInt(bytes.length).put(bytes);
+            }
+        }
+
+        private static int length(byte[] bytes) {
+            return bytes == null ? 0 : bytes.length;
+        }
+
+        private void writeFully(ByteBuffer... buffers) throws IOException {
+            ByteBuffer last = buffers[buffers.length - 1];
+            while (last.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * Reads the chunks of a snapshot file one by one, mapping each compressed chunk into memory.
+     */
+    private static final class ChunkReader {
+        private final FileChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_BYTES);
+        private final Inflater inflater = new Inflater();
+        private final CRC32 crc = new CRC32();
+        private byte[] rows = new byte[0];
+        private long position;
+        private long posts;
+        private int chunks;
+
+        ChunkReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            readFully(fileHeader);
+            if (fileHeader.getInt() != MAGIC || fileHeader.getInt() != VERSION) {
+                throw new IOException("Not a posts snapshot of version " + VERSION);
+            }
+        }
+
+        /**
+         * Reads the next chunk.
+         *
+         * @return the posts of the chunk, or null after the last chunk.
+         */
+        List<Post> next() {
+            try {
+                header.clear();
+                readFully(header);
+                int compressedLength = header.getInt();
+                int length = header.getInt();
+                int rowCount = header.getInt();
+                int checksum = header.getInt();
+                if (compressedLength == 0) {
+                    inflater.end();
+                    return null;
+                }
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, compressedLength);
+                position += compressedLength;
+                if (rows.length < length) {
+                    rows = new byte[length];
+                }
+                inflater.reset();
+                inflater.setInput(mapped);
+                if (inflater.inflate(rows, 0, length) != length || !inflater.finished()) {
+                    throw new IOException("Corrupt chunk " + chunks + " in posts snapshot");
+                }
+                crc.reset();
+                crc.update(rows, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("Checksum mismatch in chunk " + chunks + " of posts snapshot");
+                }
+                List<Post> posts = decode(ByteBuffer.wrap(rows, 0, length), rowCount);
+                this.posts += rowCount;
+                chunks++;
+                return posts;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (DataFormatException e) {
+                throw new UncheckedIOException(new IOException("Corrupt chunk " + chunks + " in posts snapshot", e));
+            }
+        }
+
+        private List<Post> decode(ByteBuffer buffer, int rowCount) {
+            List<Post> posts = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                Post post = new Post();
+                post.setId(buffer.getLong());
+                post.setUserId(buffer.get() == 0 ? null : buffer.getLong());
+                post.setTitle(getString(buffer));
+                post.setBody(getString(buffer));
+                posts.add(post);
+            }
+            return posts;
+        }
+
+        private String getString(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        private void readFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("Truncated posts snapshot");
+                }
+            }
+            position += buffer.limit();
+            buffer.flip();
+        }
+    }
+}
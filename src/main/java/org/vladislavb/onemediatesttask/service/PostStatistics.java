@@ -0,0 +1,205 @@
+package org.vladislavb.onemediatesttask.service;
+
+import org.springframework.stereotype.Component;
+import org.vladislavb.onemediatesttask.dto.AuthorPostStatisticsDto;
+import org.vladislavb.onemediatesttask.dto.PostSize;
+import org.vladislavb.onemediatesttask.entity.Post;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * PostStatistics keeps the post count, the latest post ID and the total body length of every author in memory,
+ * so they are served without reading or grouping the posts table.
+ *
+ * <p>The statistics are built from the database once and then maintained incrementally: for each written post,
+ * only the difference to its previous author and body length is applied. To compute that difference,
+ * the author and body length of every post are kept as well. Both tables are {@link LongHashMap}s keyed by the
+ * primitive user and post IDs.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+public class PostStatistics {
+
+    private final LongHashMap<PostEntry> posts = new LongHashMap<>();
+    private final LongHashMap<AuthorEntry> authors = new LongHashMap<>();
+    private volatile List<AuthorPostStatisticsDto> snapshot;
+    private volatile boolean loaded;
+
+    /**
+     * Checks if the statistics have been built from the database.
+     *
+     * @return true if the statistics are loaded, false otherwise.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Builds the statistics from the supplied posts unless they are already loaded.
+     * The supplier is invoked while holding the lock, so concurrent changes are applied after the load
+     * instead of being overwritten by it.
+     *
+     * @param sizes supplier of the sizes of all posts currently stored in the database.
+     */
+    public synchronized void load(Supplier<? extends Collection<? extends PostSize>> sizes) {
+        if (!loaded) {
+            rebuild(sizes);
+        }
+    }
+
+    /**
+     * Discards the statistics and builds them again from the supplied posts, e.g. to recover
+     * from changes made to the posts table outside the application.
+     *
+     * @param sizes supplier of the sizes of all posts currently stored in the database.
+     */
+    public synchronized void rebuild(Supplier<? extends Collection<? extends PostSize>> sizes) {
+        posts.clear();
+        authors.clear();
+        for (PostSize size : sizes.get()) {
+            put(size.getId(), size.getUserId(), size.getBodyLength() == null ? 0 : size.getBodyLength());
+        }
+        snapshot = null;
+        loaded = true;
+    }
+
+    /**
+     * Discards the statistics, so the next request loads them again from the database,
+     * e.g. after the posts table was replaced as a whole.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        posts.clear();
+        authors.clear();
+        snapshot = null;
+    }
+
+    /**
+     * Applies inserted or updated posts to the statistics.
+     * Does nothing until the statistics have been loaded, as the next load reads all posts anyway.
+     *
+     * @param written the posts that were inserted or updated.
+     */
+    public synchronized void apply(Collection<Post> written) {
+        if (!loaded) {
+            return;
+        }
+        for (Post post : written) {
+            put(post.getId(), post.getUserId(), bodyLength(post.getBody()));
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Computes the length of a post body the way the database does when the statistics are loaded:
+     * in characters, so a character outside the Basic Multilingual Plane counts once, not as two UTF-16 units.
+     *
+     * @param body the post body, or null.
+     * @return the body length in characters.
+     */
+    private static int bodyLength(String body) {
+        return body == null ? 0 : body.codePointCount(0, body.length());
+    }
+
+    /**
+     * Returns the statistics of all authors ordered by user ID.
+     * The list is built once per change and shared by all readers until the next change.
+     *
+     * @return an unmodifiable list of author statistics.
+     */
+    public List<AuthorPostStatisticsDto> getAll() {
+        List<AuthorPostStatisticsDto> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                List<AuthorPostStatisticsDto> all = new ArrayList<>(authors.size());
+                authors.forEach((userId, author) -> all.add(new AuthorPostStatisticsDto(userId,
+                        author.postCount, author.latestPostId, author.totalBodyLength)));
+                all.sort(Comparator.comparingLong(AuthorPostStatisticsDto::getUserId));
+                snapshot = List.copyOf(all);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Records the current author and body length of a post and applies the difference to its authors.
+     *
+     * @param postId     the post ID.
+     * @param userId     the user ID.
+     * @param bodyLength the body length in characters.
+     */
+    private void put(long postId, long userId, long bodyLength) {
+        PostEntry previous = posts.put(postId, new PostEntry(userId, bodyLength));
+        if (previous != null) {
+            if (previous.userId == userId) {
+                authors.get(userId).totalBodyLength += bodyLength - previous.bodyLength;
+                return;
+            }
+            detach(postId, previous);
+        }
+        AuthorEntry author = authors.get(userId);
+        if (author == null) {
+            author = new AuthorEntry(userId);
+            authors.put(userId, author);
+        }
+        author.postCount++;
+        author.totalBodyLength += bodyLength;
+        author.latestPostId = Math.max(author.latestPostId, postId);
+    }
+
+    /**
+     * Subtracts a post that no longer belongs to an author. If it was the author's latest post,
+     * the latest post is searched among the remaining posts, which only happens when posts move to another author.
+     *
+     * @param postId the post ID.
+     * @param entry  the author and body length the post had.
+     */
+    private void detach(long postId, PostEntry entry) {
+        AuthorEntry author = authors.get(entry.userId);
+        if (--author.postCount == 0) {
+            authors.remove(entry.userId);
+            return;
+        }
+        author.totalBodyLength -= entry.bodyLength;
+        if (author.latestPostId == postId) {
+            long[] latest = {0};
+            posts.forEach((id, post) -> {
+                if (post.userId == entry.userId && id > latest[0]) {
+                    latest[0] = id;
+                }
+            });
+            author.latestPostId = latest[0];
+        }
+    }
+
+    /**
+     * The author and body length of a post.
+     *
+     * @param userId     the user ID.
+     * @param bodyLength the body length in characters.
+     */
+    private record PostEntry(long userId, long bodyLength) {
+    }
+
+    /**
+     * The mutable statistics of one author.
+     */
+    private static final class AuthorEntry {
+        private final long userId;
+        private long postCount;
+        private long latestPostId;
+        private long totalBodyLength;
+
+        AuthorEntry(long userId) {
+            this.userId = userId;
+        }
+    }
+}
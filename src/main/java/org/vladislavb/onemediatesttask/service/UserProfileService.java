@@ -0,0 +1,117 @@
+package org.vladislavb.onemediatesttask.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.vladislavb.onemediatesttask.dto.UserDto;
+import org.vladislavb.onemediatesttask.dto.UserProfileDto;
+import org.vladislavb.onemediatesttask.entity.Post;
+import org.vladislavb.onemediatesttask.exceprionHandler.BadRequestException;
+import org.vladislavb.onemediatesttask.repository.PostRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * UserProfileService assembles a user profile from the user and a page of the user's posts.
+ * Both are queried concurrently in a {@link StructuredTaskScope}, each in its own virtual thread, so a profile
+ * takes as long as the slower query rather than the sum of both. The queries share one deadline, and if either
+ * fails or the deadline passes, the other is cancelled before the request returns.
+ *
+ * <p>Structured concurrency is a preview API, so the application is compiled and run with
+ * {@code --enable-preview}.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Service
+public class UserProfileService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final UserService userService;
+    private final PostRepository postRepository;
+    private final Duration timeout;
+
+    /**
+     * Constructs a UserProfileService.
+     *
+     * @param userService    the service used to look up the user.
+     * @param postRepository the repository used to query the user's posts.
+     * @param timeout        the deadline shared by both queries of a profile.
+     */
+    public UserProfileService(UserService userService, PostRepository postRepository,
+                              @Value("${app.users.profile.timeout:2s}") Duration timeout) {
+        this.userService = userService;
+        this.postRepository = postRepository;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Retrieves a user together with one page of the user's posts, ordered by post ID.
+     *
+     * @param id   the user ID.
+     * @param page the zero-based index of the page of posts.
+     * @param size the maximum number of posts per page, at most 100.
+     * @return the user profile.
+     * @throws ChangeSetPersister.NotFoundException if the user is not found.
+     * @throws TimeoutException                     if the queries did not complete within the deadline.
+     * @throws BadRequestException                  if the page or the page size is out of range.
+     */
+    public UserProfileDto getUserProfile(Long id, int page, int size)
+            throws ChangeSetPersister.NotFoundException, TimeoutException {
+        PageRequest pageRequest = pageRequest(page, size);
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            StructuredTaskScope.Subtask<UserDto> user = scope.fork(() -> userService.getUserById(id));
+            StructuredTaskScope.Subtask<List<Post>> posts =
+                    scope.fork(() -> postRepository.findByUserIdOrderByIdAsc(id, pageRequest));
+            scope.joinUntil(Instant.now().plus(timeout));
+            scope.throwIfFailed();
+            return new UserProfileDto(user.get(), posts.get(), page, size);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the profile of user " + id, e);
+        }
+    }
+
+    /**
+     * Validates the requested page of posts, shared with the reactive stack.
+     *
+     * @param page the zero-based index of the page.
+     * @param size the maximum number of posts per page.
+     * @return the page request.
+     * @throws BadRequestException if the page or the page size is out of range.
+     */
+    public static PageRequest pageRequest(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page must not be negative and size must be between 1 and "
+                    + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(page, size);
+    }
+
+    /**
+     * Rethrows the failure of a subtask as it was thrown by the query.
+     *
+     * @param cause the failure of the subtask.
+     * @return never returns normally.
+     * @throws ChangeSetPersister.NotFoundException if the user was not found.
+     */
+    private static RuntimeException rethrow(Throwable cause) throws ChangeSetPersister.NotFoundException {
+        if (cause instanceof ChangeSetPersister.NotFoundException notFound) {
+            throw notFound;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(cause);
+    }
+}
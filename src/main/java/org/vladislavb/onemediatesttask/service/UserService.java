@@ -8,6 +8,8 @@ import org.vladislavb.onemediatesttask.dto.UserCredentialsDto;
 import org.vladislavb.onemediatesttask.dto.UserDto;
 
 import javax.naming.AuthenticationException;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * UserService is an interface that defines the contract for user-related operations,
@@ -21,19 +23,21 @@ public interface UserService {
      * Signs in a user with the provided credentials and generates JWT authentication tokens.
      *
      * @param userCredentialsDto the user credentials used for authentication.
+     * @param clientIp           the address of the client, recorded in the audit log.
      * @return a {@link JwtAuthenticationDto} containing the authentication token and refresh token.
      * @throws AuthenticationException if authentication fails.
      */
-    JwtAuthenticationDto singIn(UserCredentialsDto userCredentialsDto) throws AuthenticationException;
+    JwtAuthenticationDto singIn(UserCredentialsDto userCredentialsDto, String clientIp) throws AuthenticationException;
 
     /**
      * Refreshes the authentication token using a valid refresh token.
      *
      * @param refreshTokenDto the refresh token used to generate a new authentication token.
+     * @param clientIp        the address of the client, recorded in the audit log.
      * @return a {@link JwtAuthenticationDto} containing the new authentication token and the same refresh token.
      * @throws Exception if an error occurs during the refresh process.
      */
-    JwtAuthenticationDto refreshToken(RefreshTokenDto refreshTokenDto) throws Exception;
+    JwtAuthenticationDto refreshToken(RefreshTokenDto refreshTokenDto, String clientIp) throws Exception;
 
     /**
      * Retrieves user details by the user's ID.
@@ -53,6 +57,14 @@ public interface UserService {
      */
     UserDto getUserByEmail(String email) throws ChangeSetPersister.NotFoundException;
 
+    /**
+     * Retrieves the details of several users at once. Passwords are never included.
+     *
+     * @param ids the IDs of the users.
+     * @return a map of {@link UserDto} keyed by user ID, containing only the users that were found.
+     */
+    Map<Long, UserDto> getUsersByIds(Collection<Long> ids);
+
     /**
      * Adds a new user to the system.
      *
@@ -62,9 +74,11 @@ public interface UserService {
     String addUser(UserDto user);
 
     /**
-     * Logs out a user by invalidating their refresh token.
+     * Logs out the user by invalidating their tokens on all application nodes.
      *
      * @param refreshTokenDto the refresh token to be invalidated.
+     * @param accessToken     the access token to be invalidated, or {@code null} if none was sent.
+     * @param clientIp        the address of the client, recorded in the audit log.
      */
-    void logout(RefreshTokenDto refreshTokenDto);
+    void logout(RefreshTokenDto refreshTokenDto, String accessToken, String clientIp);
 }
@@ -1,101 +1,200 @@
 package org.vladislavb.onemediatesttask.service.impl;
 
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.datasource.ReadYourWritesWindow;
 import org.vladislavb.onemediatesttask.dto.JwtAuthenticationDto;
 import org.vladislavb.onemediatesttask.dto.RefreshTokenDto;
 import org.vladislavb.onemediatesttask.dto.UserCredentialsDto;
 import org.vladislavb.onemediatesttask.dto.UserDto;
 import org.vladislavb.onemediatesttask.entity.User;
+import org.vladislavb.onemediatesttask.jfr.SignInEvent;
 import org.vladislavb.onemediatesttask.mapper.UserMapper;
 import org.vladislavb.onemediatesttask.repository.UserRepository;
+import org.vladislavb.onemediatesttask.security.audit.AuthAuditEvent;
+import org.vladislavb.onemediatesttask.security.audit.AuthAuditLog;
 import org.vladislavb.onemediatesttask.security.jwt.JwtService;
+import org.vladislavb.onemediatesttask.security.refresh.RefreshTokenService;
 import org.vladislavb.onemediatesttask.service.UserService;
 
 import javax.naming.AuthenticationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of the {@link UserService} interface.
  * This service provides user authentication, token management, and user retrieval operations.
+ * Sign-ins, refreshes and logouts are recorded in the asynchronous {@link AuthAuditLog}.
  *
  *@author Vladislav Baryshev
  */
 @Service
-@RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int USER_BATCH_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
     private final PasswordEncoder passwordEncoder;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final AuthAuditLog authAuditLog;
+    private final Timer passwordMatchTimer;
+    private final Timer passwordMismatchTimer;
+
+    /**
+     * Constructs a UserServiceImpl.
+     *
+     * @param userRepository       the repository of users.
+     * @param userMapper           the mapper between users and their DTOs.
+     * @param jwtService           the service issuing and invalidating access tokens.
+     * @param refreshTokenService  the service issuing and rotating refresh tokens.
+     * @param passwordEncoder      the encoder used to hash and verify passwords.
+     * @param readYourWritesWindow the window that routes reads to the primary after a write.
+     * @param authAuditLog         the audit log of sign-ins, refreshes and logouts.
+     * @param meterRegistry        the registry used to record the time of password verifications.
+     */
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, JwtService jwtService,
+                           RefreshTokenService refreshTokenService, PasswordEncoder passwordEncoder,
+                           ReadYourWritesWindow readYourWritesWindow, AuthAuditLog authAuditLog,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.passwordEncoder = passwordEncoder;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.authAuditLog = authAuditLog;
+        this.passwordMatchTimer = passwordMatchTimer(meterRegistry, "match");
+        this.passwordMismatchTimer = passwordMatchTimer(meterRegistry, "mismatch");
+    }
 
     /**
-     * Authenticates a user based on provided credentials and generates a JWT authentication token.
+     * Authenticates a user based on provided credentials and generates a JWT access token
+     * together with the first refresh token of a new rotation family.
      *
      * @param userCredentialsDto User credentials.
+     * @param clientIp           The address of the client.
      * @return JWT authentication token.
      * @throws AuthenticationException if authentication fails.
      */
     @Override
-    public JwtAuthenticationDto singIn(UserCredentialsDto userCredentialsDto) throws AuthenticationException {
-        User user = findByCredentials(userCredentialsDto);
-        return jwtService.generateAuthToken(user.getEmail());
+    public JwtAuthenticationDto singIn(UserCredentialsDto userCredentialsDto, String clientIp)
+            throws AuthenticationException {
+        SignInEvent event = new SignInEvent();
+        event.begin();
+        User user;
+        try {
+            user = findByCredentials(userCredentialsDto);
+        } catch (AuthenticationException e) {
+            authAuditLog.record(AuthAuditEvent.Type.SIGN_IN, AuthAuditEvent.Outcome.FAILURE, null,
+                    userCredentialsDto.getEmail(), clientIp);
+            event.commit(null, false);
+            throw e;
+        }
+        JwtAuthenticationDto tokens = authTokens(user.getEmail(), refreshTokenService.issue(user.getUserId()));
+        authAuditLog.signedIn(user.getUserId(), user.getEmail(), clientIp);
+        event.commit(user.getUserId(), true);
+        return tokens;
     }
 
     /**
      * Refreshes an authentication token using a valid refresh token.
+     * The refresh token is rotated: the presented token is used up and a new one is returned.
+     * The user is resolved by ID, which is served from the second-level cache.
      *
      * @param refreshTokenDto DTO containing the refresh token.
-     * @return A new JWT authentication token.
-     * @throws Exception if the refresh token is invalid or has been revoked.
+     * @param clientIp        The address of the client.
+     * @return A new JWT authentication token and refresh token.
+     * @throws Exception if the refresh token is invalid, has been revoked or has already been used.
      */
     @Override
-    public JwtAuthenticationDto refreshToken(RefreshTokenDto refreshTokenDto) throws Exception {
+    public JwtAuthenticationDto refreshToken(RefreshTokenDto refreshTokenDto, String clientIp) throws Exception {
         String refreshToken = refreshTokenDto.getRefreshToken();
-        if (refreshToken != null && jwtService.validateJwtToken(refreshToken)) {
-            if (jwtService.isTokenInvalidated(refreshToken)) {
-                throw new AuthenticationException("Refresh token is invalidated");
+        RefreshTokenService.Rotation rotation;
+        try {
+            if (refreshToken == null) {
+                throw new AuthenticationException("Invalid refresh token");
             }
-            User user = findByEmail(jwtService.getEmailFromToken(refreshToken));
-            return jwtService.refreshBaseToken(user.getEmail(), refreshToken);
+            rotation = refreshTokenService.rotate(refreshToken);
+        } catch (Exception e) {
+            authAuditLog.record(AuthAuditEvent.Type.REFRESH, AuthAuditEvent.Outcome.FAILURE, null, null, clientIp);
+            throw e;
         }
-        throw new  AuthenticationException("Invalid refresh token");
+        User user = userRepository.findById(rotation.userId()).orElseThrow(() ->
+                new Exception(String.format("User with id %d not found", rotation.userId())));
+        authAuditLog.record(AuthAuditEvent.Type.REFRESH, AuthAuditEvent.Outcome.SUCCESS, user.getUserId(),
+                user.getEmail(), clientIp);
+        return authTokens(user.getEmail(), rotation.refreshToken());
     }
 
     /**
      * Retrieves a user by their unique ID.
+     * Runs in a read-only transaction with manual flush mode and projects the row straight into the DTO,
+     * so no managed entity or dirty-checking snapshot is created.
      *
      * @param id The user's ID.
-     * @return User DTO.
+     * @return User DTO without the password.
      * @throws ChangeSetPersister.NotFoundException if the user is not found.
      */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) throws ChangeSetPersister.NotFoundException {
-        return userMapper.toDto(userRepository.findByUserId(id)
-                .orElseThrow(ChangeSetPersister.NotFoundException::new));
+        return userRepository.findDtoByUserId(id)
+                .orElseThrow(ChangeSetPersister.NotFoundException::new);
     }
 
     /**
      * Retrieves a user by their email address.
+     * Runs in a read-only transaction with manual flush mode and projects the row straight into the DTO,
+     * so no managed entity or dirty-checking snapshot is created.
      *
      * @param email The user's email.
-     * @return User DTO.
+     * @return User DTO without the password.
      * @throws ChangeSetPersister.NotFoundException if the user is not found.
      */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDto getUserByEmail(String email) throws ChangeSetPersister.NotFoundException {
-        return userMapper.toDto(userRepository.findByEmail(email)
-                .orElseThrow(ChangeSetPersister.NotFoundException::new));
+        return userRepository.findDtoByEmail(email)
+                .orElseThrow(ChangeSetPersister.NotFoundException::new);
+    }
+
+    /**
+     * Retrieves several users by their IDs. The IDs are resolved with one {@code IN} query
+     * per chunk of {@value #USER_BATCH_CHUNK_SIZE} IDs.
+     *
+     * @param ids The users' IDs.
+     * @return User DTOs without passwords, keyed by user ID.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, UserDto> getUsersByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, UserDto> users = new LinkedHashMap<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += USER_BATCH_CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(distinctIds.subList(from,
+                    Math.min(from + USER_BATCH_CHUNK_SIZE, distinctIds.size())));
+            userRepository.findAllByUserIdIn(chunk)
+                    .forEach(user -> users.put(user.getUserId(), userMapper.toPublicDto(user)));
+        }
+        return users;
     }
 
     /**
      * Adds a new user to the system.
+     * Opens a read-your-writes window, so the new user is immediately visible to reads.
      *
      * @param userDto The user data transfer object.
      * @return A success message.
@@ -105,11 +204,13 @@ public class UserServiceImpl implements UserService {
         User user = userMapper.toEntity(userDto);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
+        readYourWritesWindow.markWrite();
         return "User added";
     }
 
     /**
      * Finds a user by credentials and validates the password.
+     * The password hash verification is timed separately from the user lookup.
      *
      * @param userCredentialsDto User credentials.
      * @return The authenticated user entity.
@@ -119,7 +220,10 @@ public class UserServiceImpl implements UserService {
         Optional<User> optionalUser = userRepository.findByEmail(userCredentialsDto.getEmail());
         if (optionalUser.isPresent()){
             User user = optionalUser.get();
-            if (passwordEncoder.matches(userCredentialsDto.getPassword(), user.getPassword())){
+            long start = System.nanoTime();
+            boolean matches = passwordEncoder.matches(userCredentialsDto.getPassword(), user.getPassword());
+            (matches ? passwordMatchTimer : passwordMismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (matches){
                 return user;
             }
         }
@@ -127,28 +231,52 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Finds a user by their email address.
+     * Creates the timer for password verifications with the given result, shared with the reactive stack.
      *
-     * @param email The email address.
-     * @return The user entity.
-     * @throws Exception if the user is not found.
+     * @param meterRegistry the registry to register the timer in.
+     * @param result        "match" or "mismatch".
+     * @return the registered timer.
      */
-    private User findByEmail(String email) throws Exception {
-        return userRepository.findByEmail(email).orElseThrow(()->
-                new Exception(String.format("User with email %s not found", email)));
+    public static Timer passwordMatchTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("onemedia.auth.password.match")
+                .description("Time spent verifying password hashes")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
-     * Logs out a user by invalidating their refresh token.
+     * Builds the authentication response from a new access token and the given refresh token.
+     *
+     * @param email        The email address to issue the access token for.
+     * @param refreshToken The refresh token.
+     * @return JWT authentication token.
+     */
+    private JwtAuthenticationDto authTokens(String email, String refreshToken) {
+        JwtAuthenticationDto jwtDto = new JwtAuthenticationDto();
+        jwtDto.setToken(jwtService.generateAccessToken(email));
+        jwtDto.setRefreshToken(refreshToken);
+        return jwtDto;
+    }
+
+    /**
+     * Logs out a user by revoking the rotation family of their refresh token and, if given,
+     * invalidating their access token on all application nodes.
      *
      * @param refreshTokenDto DTO containing the refresh token.
+     * @param accessToken     the access token, or {@code null} if none was sent.
+     * @param clientIp        the address of the client.
      */
     @Override
     @Transactional
-    public void logout(RefreshTokenDto refreshTokenDto) {
+    public void logout(RefreshTokenDto refreshTokenDto, String accessToken, String clientIp) {
         String refreshToken = refreshTokenDto.getRefreshToken();
-        if (refreshToken != null && jwtService.validateJwtToken(refreshToken)) {
-            jwtService.invalidateToken(refreshToken); // Делаем refresh token недействительным
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken); // Делаем refresh token недействительным
+        }
+        String email = accessToken == null ? null : jwtService.resolveEmail(accessToken);
+        if (email != null) {
+            jwtService.invalidateToken(accessToken);
         }
+        authAuditLog.record(AuthAuditEvent.Type.LOGOUT, AuthAuditEvent.Outcome.SUCCESS, null, email, clientIp);
     }
 }
@@ -0,0 +1,101 @@
+package org.vladislavb.onemediatesttask.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * RequestTimingFilter times every request on the servlet stack. It runs ahead of all other filters,
+ * including the security filter chain, and binds the {@link RequestTimings} of the request to its thread.
+ * The write phase starts just before the response is committed, when the timings are also sent as a
+ * {@code Server-Timing} header if the {@link SlowRequestLog} allows it, and the request is passed to the log once
+ * it has completed.
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+
+    /**
+     * Constructs a RequestTimingFilter.
+     *
+     * @param slowRequestLog the log of slow requests, which also tells whether timing is enabled.
+     */
+    public RequestTimingFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    /**
+     * Times the request and reports its timings.
+     *
+     * @param request the HTTP request object.
+     * @param response the HTTP response object.
+     * @param filterChain the filter chain to pass the request and response to the next filter.
+     * @throws ServletException if a servlet error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!slowRequestLog.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTimings timings = new RequestTimings();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, timings,
+                slowRequestLog.isServerTimingHeader());
+        RequestTimings.bind(timings);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            RequestTimings.bind(null);
+            if (!response.isCommitted()) {
+                timedResponse.onResponseCommitted();
+            }
+            slowRequestLog.record(request.getMethod(), request.getRequestURI(), response.getStatus(), timings);
+        }
+    }
+
+    /**
+     * Starts the write phase and adds the {@code Server-Timing} header right before the response is committed,
+     * which is the last moment headers can be set.
+     */
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+        private final RequestTimings timings;
+        private final boolean serverTimingHeader;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings, boolean serverTimingHeader) {
+            super(response);
+            this.timings = timings;
+            this.serverTimingHeader = serverTimingHeader;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            if (isDisableOnResponseCommitted()) {
+                return;
+            }
+            disableOnResponseCommitted();
+            timings.startWrite();
+            if (serverTimingHeader) {
+                setHeader(SERVER_TIMING, timings.toServerTiming());
+            }
+        }
+    }
+}
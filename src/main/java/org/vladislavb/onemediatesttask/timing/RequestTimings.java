@@ -0,0 +1,186 @@
+package org.vladislavb.onemediatesttask.timing;
+
+import org.vladislavb.onemediatesttask.dto.SlowRequestDto;
+
+import java.time.Instant;
+
+/**
+ * RequestTimings accumulates the time a single request spends in each phase of its processing.
+ *
+ * <p>Token resolution and user loading are measured where they happen. The service phase is the rest of the
+ * time until the response body starts being written, and the write phase the time from there on. The timings
+ * can be sent as a {@code Server-Timing} header when the response is committed, and are checked against the slow
+ * request threshold when the request has completed.</p>
+ *
+ * <p>An instance is owned by one request and is not thread-safe. On the servlet stack the current instance is
+ * bound to the request thread, on the reactive stack it is stored in the exchange attributes under
+ * {@link #ATTRIBUTE}, and each phase is recorded by the one thread processing that part of the request.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+public final class RequestTimings {
+
+    /**
+     * The name of the exchange attribute holding the timings of a reactive request.
+     */
+    public static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The measured phases of a request, with their name in the {@code Server-Timing} header.
+     */
+    public enum Phase {
+        TOKEN("token"), USER("user"), SERVICE("service"), WRITE("write");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private final Instant startedAt = Instant.now();
+    private final long startNanos;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long writeStartNanos;
+    private long endNanos;
+
+    /**
+     * Constructs a RequestTimings for a request that started now.
+     */
+    public RequestTimings() {
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the timings of the request processed by the current thread, on the servlet stack.
+     *
+     * @return the timings, or null if the request is not timed.
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds timings to the current thread, or unbinds them if null.
+     *
+     * @param timings the timings of the request processed by the current thread.
+     */
+    static void bind(RequestTimings timings) {
+        if (timings == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timings);
+        }
+    }
+
+    /**
+     * Adds the time since the given start to a phase, if the request is timed.
+     *
+     * @param timings    the timings of the request, or null if the request is not timed.
+     * @param phase      the phase.
+     * @param startNanos the {@link System#nanoTime()} at which the phase started.
+     */
+    public static void record(RequestTimings timings, Phase phase, long startNanos) {
+        if (timings != null) {
+            timings.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Marks the start of writing the response body, ending the service phase.
+     * Only the first call counts.
+     */
+    public void startWrite() {
+        if (writeStartNanos == 0) {
+            writeStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of the request.
+     */
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the total time of the finished request.
+     *
+     * @return the time from start to finish in nanoseconds.
+     */
+    long totalNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * Renders the timings measured so far as the value of a {@code Server-Timing} header,
+     * with durations in milliseconds.
+     *
+     * @return the header value, e.g. {@code token;dur=0.012, user;dur=1.305, service;dur=4.2, write;dur=0.8, total;dur=6.317}.
+     */
+    public String toServerTiming() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : Phase.values()) {
+            appendMetric(header, phase.metricName, phaseNanos(phase, now)).append(", ");
+        }
+        return appendMetric(header, "total", now - startNanos).toString();
+    }
+
+    /**
+     * Creates the slow request entry of the finished request.
+     *
+     * @param method the HTTP method.
+     * @param path   the request path.
+     * @param status the response status.
+     * @return the entry.
+     */
+    SlowRequestDto toSlowRequest(String method, String path, int status) {
+        return new SlowRequestDto(method, path, status, startedAt, toMillis(totalNanos()),
+                toMillis(phaseNanos(Phase.TOKEN, endNanos)), toMillis(phaseNanos(Phase.USER, endNanos)),
+                toMillis(phaseNanos(Phase.SERVICE, endNanos)), toMillis(phaseNanos(Phase.WRITE, endNanos)));
+    }
+
+    /**
+     * Returns the duration of a phase up to the given time. The service and write phases are derived from
+     * the start of the body, the others are measured.
+     *
+     * @param phase the phase.
+     * @param now   the {@link System#nanoTime()} to measure up to.
+     * @return the duration of the phase in nanoseconds.
+     */
+    private long phaseNanos(Phase phase, long now) {
+        long writeStart = writeStartNanos == 0 ? now : writeStartNanos;
+        return switch (phase) {
+            case SERVICE -> Math.max(0, writeStart - startNanos
+                    - phaseNanos[Phase.TOKEN.ordinal()] - phaseNanos[Phase.USER.ordinal()]);
+            case WRITE -> now - writeStart;
+            default -> phaseNanos[phase.ordinal()];
+        };
+    }
+
+    /**
+     * Appends a metric with its duration in milliseconds with microsecond precision,
+     * without going through floating point formatting.
+     *
+     * @param header the header being built.
+     * @param name   the metric name.
+     * @param nanos  the duration in nanoseconds.
+     * @return the header being built.
+     */
+    private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            header.append(fraction < 10 ? "00" : "0");
+        }
+        return header.append(fraction);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000 / 1_000.0;
+    }
+}
@@ -0,0 +1,114 @@
+package org.vladislavb.onemediatesttask.timing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.vladislavb.onemediatesttask.dto.SlowRequestDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * SlowRequestLog keeps the most recent requests that took longer than a threshold, with their phase timings,
+ * in a fixed-size ring buffer. Recording is lock-free: a writer claims the next slot with one atomic increment
+ * and overwrites the oldest entry, so the log never grows and never blocks a request.
+ *
+ * <p>It also tells the timing filters whether to send the timings to the client in a {@code Server-Timing}
+ * header. That is off by default, as the phase timings tell any caller how long token checks and user lookups take.</p>
+ *
+ * @author Vladislav Baryshev
+ */
+@Component
+public class SlowRequestLog {
+    private final boolean enabled;
+    private final boolean serverTimingHeader;
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowRequestDto> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter slowRequests;
+
+    /**
+     * Constructs a SlowRequestLog.
+     *
+     * @param enabled            whether requests are timed at all.
+     * @param serverTimingHeader whether the timings are sent to the client in a Server-Timing header.
+     * @param threshold          the duration from which a request is kept.
+     * @param capacity           the number of slow requests kept, at least 1.
+     * @param meterRegistry      the registry used to count slow requests.
+     */
+    public SlowRequestLog(@Value("${app.request-timing.enabled:true}") boolean enabled,
+                          @Value("${app.request-timing.server-timing-header:false}") boolean serverTimingHeader,
+                          @Value("${app.request-timing.slow-threshold:500ms}") Duration threshold,
+                          @Value("${app.request-timing.slow-capacity:100}") int capacity,
+                          MeterRegistry meterRegistry) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slow request capacity must be at least 1, but is " + capacity);
+        }
+        this.enabled = enabled;
+        this.serverTimingHeader = serverTimingHeader;
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.slowRequests = Counter.builder("onemedia.http.slow")
+                .description("Requests that took longer than the slow request threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks if requests are timed.
+     *
+     * @return true if timing is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks if the timings are sent to the client.
+     *
+     * @return true if timed responses get a Server-Timing header, false otherwise.
+     */
+    public boolean isServerTimingHeader() {
+        return serverTimingHeader;
+    }
+
+    /**
+     * Finishes the timings of a completed request and keeps the request if it was slow.
+     *
+     * @param method  the HTTP method.
+     * @param path    the request path.
+     * @param status  the response status.
+     * @param timings the timings of the request.
+     */
+    public void record(String method, String path, int status, RequestTimings timings) {
+        timings.finish();
+        if (timings.totalNanos() < thresholdNanos) {
+            return;
+        }
+        slowRequests.increment();
+        long slot = sequence.getAndIncrement();
+        entries.set((int) (slot % entries.length()), timings.toSlowRequest(method, path, status));
+    }
+
+    /**
+     * Returns the kept slow requests, newest first.
+     * Entries recorded while the list is built may or may not be included.
+     *
+     * @return the slow requests.
+     */
+    public List<SlowRequestDto> getRecent() {
+        long end = sequence.get();
+        long start = Math.max(0, end - entries.length());
+        List<SlowRequestDto> recent = new ArrayList<>((int) (end - start));
+        for (long slot = end - 1; slot >= start; slot--) {
+            SlowRequestDto entry = entries.get((int) (slot % entries.length()));
+            if (entry != null) {
+                recent.add(entry);
+            }
+        }
+        return recent;
+    }
+}
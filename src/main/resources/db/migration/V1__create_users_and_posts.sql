@@ -0,0 +1,27 @@
+-- Users and posts, as previously created by Hibernate's ddl-auto=update.
+-- IF NOT EXISTS keeps the migration applicable to databases that were created that way.
+
+CREATE TABLE IF NOT EXISTS users
+(
+    user_id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL
+);
+
+ALTER TABLE users ALTER COLUMN email SET NOT NULL;
+
+-- Sign-in, the JWT filter and registration look users up by email.
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_uindex ON users (email);
+
+CREATE TABLE IF NOT EXISTS posts
+(
+    id      BIGINT PRIMARY KEY,
+    user_id BIGINT,
+    title   VARCHAR(255),
+    body    TEXT
+);
+
+-- Post statistics and filtering by author.
+CREATE INDEX IF NOT EXISTS posts_user_id_idx ON posts (user_id);
@@ -0,0 +1,14 @@
+-- Revoked JWTs, shared by all application nodes. Tokens are stored as hex-encoded SHA-256 hashes.
+
+CREATE TABLE revoked_tokens
+(
+    token_hash VARCHAR(64)              NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Nodes poll for revocations newer than the last one they have seen.
+CREATE INDEX revoked_tokens_revoked_at_idx ON revoked_tokens (revoked_at);
+
+-- Rows are purged once the token has expired anyway.
+CREATE INDEX revoked_tokens_expires_at_idx ON revoked_tokens (expires_at);
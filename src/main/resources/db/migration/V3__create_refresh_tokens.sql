@@ -0,0 +1,17 @@
+-- Refresh tokens, stored as hex-encoded SHA-256 hashes of opaque random tokens.
+-- Every sign-in starts a family; every refresh marks the presented token as used and adds its successor.
+
+CREATE TABLE refresh_tokens
+(
+    token_hash VARCHAR(64)              NOT NULL PRIMARY KEY,
+    family_id  UUID                     NOT NULL,
+    user_id    BIGINT                   NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    used_at    TIMESTAMP WITH TIME ZONE
+);
+
+-- Reuse of a used token and logout delete the whole family.
+CREATE INDEX refresh_tokens_family_id_idx ON refresh_tokens (family_id);
+
+-- Expired rows are purged in batches.
+CREATE INDEX refresh_tokens_expires_at_idx ON refresh_tokens (expires_at);
@@ -0,0 +1,6 @@
+-- User profiles page through the posts of one user ordered by ID, which this index serves without sorting.
+-- It also serves every lookup by user_id alone, so the single-column index is no longer needed.
+
+CREATE INDEX posts_user_id_id_idx ON posts (user_id, id);
+
+DROP INDEX IF EXISTS posts_user_id_idx;
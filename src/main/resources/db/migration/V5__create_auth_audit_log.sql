@@ -0,0 +1,20 @@
+-- Sign-ins, refreshes and logouts with their outcome, written in batches by the asynchronous audit writer.
+-- user_id is left empty when the user is unknown, e.g. for a failed sign-in, and kept after the user is deleted.
+
+CREATE TABLE auth_audit_log
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event       VARCHAR(16)              NOT NULL,
+    outcome     VARCHAR(16)              NOT NULL,
+    user_id     BIGINT,
+    email       VARCHAR(255),
+    client_ip   VARCHAR(45),
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- The history of one user, newest first.
+CREATE INDEX auth_audit_log_user_id_occurred_at_idx ON auth_audit_log (user_id, occurred_at);
+
+-- Written by the audit writer, at most once per user and flush. Not mapped by the User entity, so updating it
+-- never invalidates the cached users.
+ALTER TABLE users ADD COLUMN last_login_at TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,3 @@
+-- Role of each user. ADMIN is granted by hand and opens the /admin endpoints; everyone else is a USER.
+
+ALTER TABLE users ADD COLUMN role VARCHAR(16) DEFAULT 'USER' NOT NULL;
@@ -0,0 +1,91 @@
+package org.vladislavb.onemediatesttask.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies read-replica routing against two local H2 databases, one acting as the primary
+ * and one as the replica, each identified by the content of its "node" table.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadYourWritesWindow readYourWritesWindow;
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        readYourWritesWindow = new ReadYourWritesWindow(Duration.ofMinutes(1));
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(1),
+                readYourWritesWindow);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readsStayOnPrimaryAfterWrite() {
+        readYourWritesWindow.markWrite();
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimary() {
+        replica.close();
+        replicaRoutingDataSource.checkHealth();
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(name);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        new JdbcTemplate(dataSource).execute("DELETE FROM node");
+        new JdbcTemplate(dataSource).update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,133 @@
+package org.vladislavb.onemediatesttask.security.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Verifies that one bad event in a batch costs neither the other events of the batch nor the last login times,
+ * against an H2 database in PostgreSQL mode, migrated by Flyway. Each test records its events into one batch
+ * and stops the log, which writes them before it returns.
+ */
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-audit;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.security.audit.flush-interval=1h"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AuthAuditLog.class, AuthAuditLogTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthAuditLogTests {
+
+    private static final String POISON = "poison@example.com";
+
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM auth_audit_log");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, password) VALUES (?, ?, ?, ?)",
+                "Ada", "Lovelace", "ada@example.com", "{noop}password");
+        userId = jdbcTemplate.queryForObject("SELECT user_id FROM users", Long.class);
+        if (!authAuditLog.isRunning()) {
+            authAuditLog.start();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("ALTER TABLE auth_audit_log DROP CONSTRAINT IF EXISTS auth_audit_log_poison");
+    }
+
+    @Test
+    void oversizedEmailIsTruncated() {
+        String email = "a".repeat(10_000) + "@example.com";
+        double written = count("written");
+
+        authAuditLog.signedIn(userId, "ada@example.com", "127.0.0.1");
+        authAuditLog.record(AuthAuditEvent.Type.SIGN_IN, AuthAuditEvent.Outcome.FAILURE, null, email,
+                "f".repeat(100));
+        authAuditLog.record(AuthAuditEvent.Type.LOGOUT, AuthAuditEvent.Outcome.SUCCESS, null, "ada@example.com",
+                "127.0.0.1");
+        authAuditLog.stop();
+
+        assertEquals(3, count("written") - written);
+        assertEquals(List.of(AuthAuditEvent.EMAIL_LENGTH),
+                jdbcTemplate.queryForList("SELECT LENGTH(email) FROM auth_audit_log WHERE outcome = 'FAILURE'",
+                        Integer.class));
+        assertEquals(List.of(AuthAuditEvent.CLIENT_IP_LENGTH),
+                jdbcTemplate.queryForList("SELECT LENGTH(client_ip) FROM auth_audit_log WHERE outcome = 'FAILURE'",
+                        Integer.class));
+        assertLastLoginWritten();
+    }
+
+    @Test
+    void rejectedEventIsDroppedAlone() {
+        // Stands in for any row the database refuses, now that oversized values are cut before they are queued.
+        jdbcTemplate.update("ALTER TABLE auth_audit_log ADD CONSTRAINT auth_audit_log_poison CHECK (email <> '"
+                + POISON + "')");
+        double written = count("written");
+        double failed = count("failed");
+
+        authAuditLog.signedIn(userId, "ada@example.com", "127.0.0.1");
+        for (int i = 0; i < 100; i++) {
+            authAuditLog.record(AuthAuditEvent.Type.SIGN_IN, AuthAuditEvent.Outcome.FAILURE, null,
+                    i == 50 ? POISON : "user" + i + "@example.com", "127.0.0.1");
+        }
+        authAuditLog.stop();
+
+        assertEquals(100, count("written") - written);
+        assertEquals(1, count("failed") - failed);
+        assertEquals(100, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_audit_log", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_audit_log WHERE email = ?",
+                Integer.class, POISON));
+        assertLastLoginWritten();
+    }
+
+    private void assertLastLoginWritten() {
+        assertNotNull(jdbcTemplate.queryForObject("SELECT last_login_at FROM users WHERE user_id = ?",
+                Object.class, userId));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("onemedia.auth.audit.events").tag("result", result).counter().count();
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
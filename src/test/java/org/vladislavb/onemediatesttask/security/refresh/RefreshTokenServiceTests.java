@@ -0,0 +1,124 @@
+package org.vladislavb.onemediatesttask.security.refresh;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.config.HibernateCacheConfig;
+import org.vladislavb.onemediatesttask.entity.RefreshToken;
+import org.vladislavb.onemediatesttask.repository.RefreshTokenRepository;
+
+import javax.naming.AuthenticationException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies refresh token rotation against an H2 database in PostgreSQL mode, migrated by Flyway.
+ * The tests run outside a transaction, so every call to the service commits or rolls back on its own,
+ * exactly as it does when called from a controller.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-tokens;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HibernateCacheConfig.class, RefreshTokenService.class, RefreshTokenServiceTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, password) VALUES (?, ?, ?, ?)",
+                "Ada", "Lovelace", "ada@example.com", "{noop}password");
+        userId = jdbcTemplate.queryForObject("SELECT user_id FROM users", Long.class);
+    }
+
+    @Test
+    void rotationIssuesSuccessorAndUsesUpToken() throws AuthenticationException {
+        String token = refreshTokenService.issue(userId);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertEquals(userId, rotation.userId());
+        assertNotEquals(token, rotation.refreshToken());
+        List<RefreshToken> family = refreshTokenRepository.findAll();
+        assertEquals(2, family.size());
+        assertEquals(1, family.stream().filter(refreshToken -> refreshToken.getUsedAt() != null).count());
+        assertEquals(1, family.stream().map(RefreshToken::getFamilyId).distinct().count());
+    }
+
+    @Test
+    void reusedTokenDeletesFamily() throws AuthenticationException {
+        String token = refreshTokenService.issue(userId);
+        String successor = refreshTokenService.rotate(token).refreshToken();
+        String otherFamily = refreshTokenService.issue(userId);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(token));
+
+        // The deletion is committed although rotate failed, so the successor is gone too.
+        assertEquals(1, refreshTokenRepository.count());
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(successor));
+        assertNotNull(refreshTokenService.rotate(otherFamily).refreshToken());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = refreshTokenService.issue(userId);
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = ?", Instant.now().minusSeconds(1));
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(token));
+
+        RefreshToken refreshToken = refreshTokenRepository.findAll().getFirst();
+        assertNull(refreshToken.getUsedAt(), "A rejected token must not be used up");
+        assertEquals(1, refreshTokenRepository.count());
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        refreshTokenService.issue(userId);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate("unknown"));
+        assertEquals(1, refreshTokenRepository.count());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
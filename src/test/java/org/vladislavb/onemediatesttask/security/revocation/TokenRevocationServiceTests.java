@@ -0,0 +1,109 @@
+package org.vladislavb.onemediatesttask.security.revocation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.vladislavb.onemediatesttask.config.HibernateCacheConfig;
+import org.vladislavb.onemediatesttask.entity.RevokedToken;
+import org.vladislavb.onemediatesttask.repository.RevokedTokenRepository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the revoked token gauge counts each revocation once, however often the polls load it again,
+ * against an H2 database in PostgreSQL mode, migrated by Flyway.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:revoked-tokens;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HibernateCacheConfig.class, TokenRevocationService.class, TokenRevocationServiceTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTests {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository.deleteAll();
+        tokenRevocationService.rebuild();
+    }
+
+    @Test
+    void repeatedPollsDoNotInflateCount() {
+        tokenRevocationService.revoke("first", expiresAt);
+        tokenRevocationService.revoke("first", expiresAt);
+        for (int i = 0; i < 5; i++) {
+            tokenRevocationService.pollRevocations();
+        }
+
+        assertEquals(1, revokedTokens());
+        assertTrue(tokenRevocationService.isRevoked("first"));
+    }
+
+    @Test
+    void revocationsOfOtherNodesAreCountedOnce() {
+        tokenRevocationService.revoke("first", expiresAt);
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenHash("ab".repeat(32));
+        revokedToken.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(revokedToken);
+
+        tokenRevocationService.pollRevocations();
+        tokenRevocationService.pollRevocations();
+
+        assertEquals(2, revokedTokens());
+    }
+
+    @Test
+    void rebuildSetsCountToUnexpiredRevocations() {
+        tokenRevocationService.revoke("first", expiresAt);
+        tokenRevocationService.revoke("second", expiresAt);
+        tokenRevocationService.revoke("expired", Instant.now().minusSeconds(1));
+        tokenRevocationService.pollRevocations();
+
+        tokenRevocationService.rebuild();
+
+        assertEquals(2, revokedTokens());
+    }
+
+    private double revokedTokens() {
+        return meterRegistry.get("onemedia.jwt.revoked.tokens").gauge().value();
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.vladislavb.onemediatesttask.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the open-addressing {@link LongHashMap}, in particular probing over colliding keys,
+ * backward-shift deletion across the end of the table and resizing.
+ */
+class LongHashMapTests {
+
+    private static final int INITIAL_MASK = 15;
+
+    @Test
+    void putReplacesAndReturnsPreviousValue() {
+        LongHashMap<String> map = new LongHashMap<>();
+
+        assertNull(map.put(1, "a"));
+        assertEquals("a", map.put(1, "b"));
+
+        assertEquals("b", map.get(1));
+        assertEquals(1, map.size());
+        assertNull(map.get(2));
+    }
+
+    @Test
+    void nullValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LongHashMap<String>().put(1, null));
+    }
+
+    @Test
+    void removingCollidingKeyKeepsTheOthersReachable() {
+        long[] keys = keysWithHomeSlot(3, 4);
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key : keys) {
+            map.put(key, key);
+        }
+
+        assertEquals(keys[0], map.remove(keys[0]));
+        assertEquals(keys[2], map.remove(keys[2]));
+
+        assertNull(map.get(keys[0]));
+        assertNull(map.get(keys[2]));
+        assertEquals(keys[1], map.get(keys[1]));
+        assertEquals(keys[3], map.get(keys[3]));
+        assertEquals(2, map.size());
+        assertNull(map.remove(keys[0]));
+    }
+
+    @Test
+    void removalShiftsEntriesBackAcrossTheEndOfTheTable() {
+        // The last slot is the home of all three keys, so the second and third wrap around to slots 0 and 1.
+        long[] wrapped = keysWithHomeSlot(INITIAL_MASK, 3);
+        long[] homeZero = keysWithHomeSlot(0, 1);
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key : wrapped) {
+            map.put(key, key);
+        }
+        map.put(homeZero[0], homeZero[0]);
+
+        map.remove(wrapped[0]);
+
+        assertEquals(wrapped[1], map.get(wrapped[1]));
+        assertEquals(wrapped[2], map.get(wrapped[2]));
+        assertEquals(homeZero[0], map.get(homeZero[0]));
+        map.remove(wrapped[1]);
+        map.remove(wrapped[2]);
+        assertEquals(homeZero[0], map.get(homeZero[0]));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void resizeKeepsAllEntries() {
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, -key);
+        }
+        for (long key = 1; key <= 10_000; key += 2) {
+            map.remove(key);
+        }
+
+        assertEquals(5_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key % 2 == 0 ? Long.valueOf(-key) : null, map.get(key));
+        }
+        long[] sum = {0};
+        map.forEach((key, value) -> sum[0] += key + value);
+        assertEquals(0, sum[0]);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        // A small key space keeps the table crowded, so most operations probe over colliding keys.
+        Random random = new Random(42);
+        LongHashMap<Integer> map = new LongHashMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(200) - 100;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+    @Test
+    void clearRemovesAllEntries() {
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, key);
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(1));
+        map.put(1, 1L);
+        assertEquals(1L, map.get(1));
+    }
+
+    /**
+     * Finds keys that share a home slot in a map of the initial capacity.
+     */
+    private static long[] keysWithHomeSlot(int slot, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if (LongHashMap.slot(key, INITIAL_MASK) == slot) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,152 @@
+package org.vladislavb.onemediatesttask.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vladislavb.onemediatesttask.dto.AuthorPostStatisticsDto;
+import org.vladislavb.onemediatesttask.dto.PostSize;
+import org.vladislavb.onemediatesttask.entity.Post;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that {@link PostStatistics} keeps the per-author statistics equal to a fresh load
+ * while posts are added, changed and moved between authors.
+ */
+class PostStatisticsTests {
+
+    private PostStatistics postStatistics;
+
+    @BeforeEach
+    void setUp() {
+        postStatistics = new PostStatistics();
+        postStatistics.load(() -> List.of(size(1, 10, 100), size(2, 10, 50), size(3, 20, null)));
+    }
+
+    @Test
+    void loadAggregatesPostsPerAuthor() {
+        assertEquals(List.of(author(10, 2, 2, 150), author(20, 1, 3, 0)), postStatistics.getAll());
+    }
+
+    @Test
+    void loadIsSkippedOnceLoaded() {
+        postStatistics.load(List::of);
+
+        assertEquals(2, postStatistics.getAll().size());
+    }
+
+    @Test
+    void newPostIsAddedToItsAuthor() {
+        postStatistics.apply(List.of(post(4, 20, "body"), post(5, 30, "x")));
+
+        assertEquals(List.of(author(10, 2, 2, 150), author(20, 2, 4, 4), author(30, 1, 5, 1)),
+                postStatistics.getAll());
+    }
+
+    @Test
+    void changedBodyAdjustsTotalLength() {
+        postStatistics.apply(List.of(post(1, 10, "a".repeat(30))));
+
+        assertEquals(List.of(author(10, 2, 2, 80), author(20, 1, 3, 0)), postStatistics.getAll());
+    }
+
+    @Test
+    void movedLatestPostIsDetachedFromPreviousAuthor() {
+        postStatistics.apply(List.of(post(2, 20, "a".repeat(50))));
+
+        // Post 2 was the latest post of author 10, so the latest post is looked up again.
+        assertEquals(List.of(author(10, 1, 1, 100), author(20, 2, 3, 50)), postStatistics.getAll());
+    }
+
+    @Test
+    void movedOlderPostKeepsLatestPostOfPreviousAuthor() {
+        postStatistics.apply(List.of(post(1, 20, null)));
+
+        assertEquals(List.of(author(10, 1, 2, 50), author(20, 2, 3, 0)), postStatistics.getAll());
+    }
+
+    @Test
+    void authorWithoutPostsIsRemoved() {
+        postStatistics.apply(List.of(post(3, 10, "abc")));
+
+        assertEquals(List.of(author(10, 3, 3, 153)), postStatistics.getAll());
+    }
+
+    @Test
+    void incrementalChangesMatchFreshLoad() {
+        postStatistics.apply(List.of(post(2, 30, "ab"), post(6, 10, "abcd"), post(3, 10, null), post(1, 30, "")));
+
+        PostStatistics fresh = new PostStatistics();
+        fresh.load(() -> List.of(size(1, 30, 0), size(2, 30, 2), size(3, 10, 0), size(6, 10, 4)));
+        assertEquals(fresh.getAll(), postStatistics.getAll());
+    }
+
+    @Test
+    void bodyLengthCountsCharactersLikeRebuild() {
+        String body = "\uD83D\uDE00 emoji \uD835\uDD38";
+        postStatistics.apply(List.of(post(4, 40, body)));
+
+        // PostgreSQL's length() counts characters, so the database reports 9 for this body, not 11.
+        PostStatistics rebuilt = new PostStatistics();
+        rebuilt.rebuild(() -> List.of(size(1, 10, 100), size(2, 10, 50), size(3, 20, null), size(4, 40, 9)));
+        assertEquals(rebuilt.getAll(), postStatistics.getAll());
+        assertEquals(9, postStatistics.getAll().getLast().getTotalBodyLength());
+    }
+
+    @Test
+    void snapshotIsSharedUntilNextChange() {
+        List<AuthorPostStatisticsDto> first = postStatistics.getAll();
+
+        assertSame(first, postStatistics.getAll());
+        postStatistics.apply(List.of(post(7, 10, "")));
+        assertEquals(3, postStatistics.getAll().getFirst().getPostCount());
+    }
+
+    @Test
+    void changesAreIgnoredUntilLoaded() {
+        postStatistics.invalidate();
+
+        assertFalse(postStatistics.isLoaded());
+        postStatistics.apply(List.of(post(4, 40, "ignored")));
+        postStatistics.load(() -> List.of(size(1, 10, 1)));
+
+        assertTrue(postStatistics.isLoaded());
+        assertEquals(List.of(author(10, 1, 1, 1)), postStatistics.getAll());
+    }
+
+    private static Post post(long id, long userId, String body) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle("title " + id);
+        post.setBody(body);
+        return post;
+    }
+
+    private static PostSize size(long id, long userId, Integer bodyLength) {
+        return new PostSize() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Integer getBodyLength() {
+                return bodyLength;
+            }
+        };
+    }
+
+    private static AuthorPostStatisticsDto author(long userId, long postCount, long latestPostId, long totalBodyLength) {
+        return new AuthorPostStatisticsDto(userId, postCount, latestPostId, totalBodyLength);
+    }
+}